@@ -0,0 +1,78 @@
+package edu.kit.datamanager.pit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.domain.TypeDefinition;
+import edu.kit.datamanager.pit.pidsystem.impl.FakeIdentifierSystem;
+
+/**
+ * Shared fixtures for the benchmarks, based on the record of the
+ * `FakeIdentifierSystem`.
+ */
+public class BenchmarkFixtures {
+
+    public static final String FAKE_PID = "123/456789";
+
+    private static final String HANDLE_SCHEMA = "{\"type\": \"string\", "
+            + "\"pattern\": \"^([0-9,A-Z,a-z])+(\\\\.([0-9,A-Z,a-z])+)*\\\\/([!-~])+$\"}";
+    private static final String URL_SCHEMA = "{\"type\": \"string\", \"format\": \"uri\"}";
+    private static final String DATE_TIME_SCHEMA = "{\"type\": \"string\", \"format\": \"date-time\"}";
+    private static final String DATE_SCHEMA = "{\"type\": \"string\", "
+            + "\"pattern\": \"^[0-9]{4}-[0-9]{2}-[0-9]{2}[ T][0-9]{2}:[0-9]{2}:[0-9]{2}\"}";
+    private static final String VERSION_SCHEMA = "{\"type\": \"string\", \"pattern\": \"^[0-9]+$\"}";
+    private static final String TEXT_SCHEMA = "{\"type\": \"string\"}";
+    private static final String ETAG_SCHEMA = "{\"type\": \"object\", "
+            + "\"properties\": {\"md5sum\": {\"type\": \"string\", \"pattern\": \"^md5:[0-9a-f]{32}$\"}}, "
+            + "\"required\": [\"md5sum\"]}";
+    private static final String METADATA_SCHEMA = "{\"type\": \"object\", "
+            + "\"properties\": {"
+            + "\"metadataScheme\": {\"type\": \"string\", \"format\": \"uri\"}, "
+            + "\"@id\": {\"type\": \"string\", \"format\": \"uri\"}, "
+            + "\"@type\": {\"type\": \"string\", \"format\": \"uri\"}}, "
+            + "\"required\": [\"metadataScheme\"]}";
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * @return a new copy of the record stored in the `FakeIdentifierSystem`.
+     */
+    public static PIDRecord fakeRecord() {
+        try {
+            return new FakeIdentifierSystem().queryAllProperties(FAKE_PID).withPID(FAKE_PID);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return a profile covering all properties of the fake record, with schemas
+     *         similar to the ones in the DTR.
+     */
+    public static TypeDefinition fakeProfile() {
+        TypeDefinition profile = new TypeDefinition();
+        profile.setIdentifier("21.T11148/b9b76f887845e32d29f7");
+        profile.setName("KernelInformationProfile");
+        profile.addSubType(type("21.T11148/076759916209e5d62bd5", HANDLE_SCHEMA, false, false));
+        profile.addSubType(type("21.T11148/1c699a5d1b4ad3ba4956", HANDLE_SCHEMA, false, false));
+        profile.addSubType(type("21.T11148/b8457812905b83046284", URL_SCHEMA, false, true));
+        profile.addSubType(type("21.T11148/8074aed799118ac263ad", HANDLE_SCHEMA, false, false));
+        profile.addSubType(type("21.T11148/92e200311a56800b3e47", ETAG_SCHEMA, false, false));
+        profile.addSubType(type("21.T11148/397d831aa3a9d18eb52c", DATE_TIME_SCHEMA, false, false));
+        profile.addSubType(type("21.T11148/29f92bd203dd3eaa5a1f", DATE_SCHEMA, false, false));
+        profile.addSubType(type("21.T11148/c692273deb2772da307f", VERSION_SCHEMA, true, false));
+        profile.addSubType(type("21.T11148/e0efd6b4c8e71c6d077b", METADATA_SCHEMA, true, true));
+        profile.addSubType(type("21.T11148/dc54ae4b6807f5887fda", TEXT_SCHEMA, true, false));
+        return profile;
+    }
+
+    private static TypeDefinition type(String identifier, String schema, boolean optional, boolean repeatable) {
+        TypeDefinition type = new TypeDefinition();
+        type.setIdentifier(identifier);
+        type.setSchema(schema);
+        type.setOptional(optional);
+        type.setRepeatable(repeatable);
+        return type;
+    }
+}
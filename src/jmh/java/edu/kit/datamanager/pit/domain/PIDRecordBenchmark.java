@@ -0,0 +1,68 @@
+package edu.kit.datamanager.pit.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.kit.datamanager.pit.BenchmarkFixtures;
+
+/**
+ * Benchmarks for creating and comparing PID records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PIDRecordBenchmark {
+
+    private PIDRecord record;
+    private PIDRecord equalRecord;
+    private TypeDefinition profile;
+    private List<PIDRecordEntry> entries;
+
+    @Setup
+    public void setUp() {
+        record = BenchmarkFixtures.fakeRecord();
+        equalRecord = BenchmarkFixtures.fakeRecord();
+        profile = BenchmarkFixtures.fakeProfile();
+        entries = new ArrayList<>();
+        record.getEntries().values().forEach(entries::addAll);
+    }
+
+    @Benchmark
+    public PIDRecord construct() {
+        PIDRecord result = new PIDRecord();
+        for (PIDRecordEntry entry : entries) {
+            result.addEntry(entry.getKey(), entry.getName(), entry.getValue());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean equalsEqualRecord() {
+        return record.equals(equalRecord);
+    }
+
+    @Benchmark
+    public int hashCodeOfRecord() {
+        return record.hashCode();
+    }
+
+    @Benchmark
+    public boolean checkTypeConformance() {
+        return record.checkTypeConformance(profile);
+    }
+
+    @Benchmark
+    public Set<String> allPropertiesOfProfile() {
+        return profile.getAllProperties();
+    }
+}
@@ -0,0 +1,49 @@
+package edu.kit.datamanager.pit.pidsystem.impl;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.kit.datamanager.pit.BenchmarkFixtures;
+import edu.kit.datamanager.pit.configuration.HandleProtocolProperties;
+import edu.kit.datamanager.pit.domain.PIDRecord;
+import net.handle.hdllib.HandleValue;
+
+/**
+ * Benchmarks for the conversion between PID records and handle values. No
+ * connection to a handle server is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HandleProtocolAdapterBenchmark {
+
+    private HandleProtocolAdapter adapter;
+    private PIDRecord record;
+    private ArrayList<HandleValue> values;
+
+    @Setup
+    public void setUp() {
+        adapter = new HandleProtocolAdapter(new HandleProtocolProperties());
+        record = BenchmarkFixtures.fakeRecord();
+        values = adapter.handleValuesFrom(record, Optional.empty());
+    }
+
+    @Benchmark
+    public ArrayList<HandleValue> handleValuesFrom() {
+        return adapter.handleValuesFrom(record, Optional.empty());
+    }
+
+    @Benchmark
+    public PIDRecord pidRecordFrom() {
+        return adapter.pidRecordFrom(values);
+    }
+}
@@ -0,0 +1,52 @@
+package edu.kit.datamanager.pit.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.kit.datamanager.pit.BenchmarkFixtures;
+import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.domain.TypeDefinition;
+
+/**
+ * Benchmarks for validating records against a profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationBenchmark {
+
+    private static final String METADATA_DOCUMENT = "21.T11148/e0efd6b4c8e71c6d077b";
+
+    private PIDRecord record;
+    private TypeDefinition profile;
+    private TypeDefinition metadataType;
+    private String metadataValue;
+
+    @Setup
+    public void setUp() {
+        record = BenchmarkFixtures.fakeRecord();
+        profile = BenchmarkFixtures.fakeProfile();
+        if (!TypeValidationUtils.isValid(record, profile)) {
+            throw new IllegalStateException("Benchmark fixture is not valid according to the profile.");
+        }
+        metadataType = profile.getSubTypes().get(METADATA_DOCUMENT);
+        metadataValue = record.getPropertyValue(METADATA_DOCUMENT);
+    }
+
+    @Benchmark
+    public boolean validateRecord() {
+        return TypeValidationUtils.isValid(record, profile);
+    }
+
+    @Benchmark
+    public boolean validateJsonValue() {
+        return metadataType.validate(metadataValue);
+    }
+}
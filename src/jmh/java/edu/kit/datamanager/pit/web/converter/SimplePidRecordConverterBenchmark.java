@@ -0,0 +1,94 @@
+package edu.kit.datamanager.pit.web.converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+
+import edu.kit.datamanager.pit.BenchmarkFixtures;
+import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.domain.SimplePidRecord;
+
+/**
+ * Benchmarks for converting records between the internal and the simple format,
+ * including JSON (de-)serialization as done for HTTP messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimplePidRecordConverterBenchmark {
+
+    private static final MediaType SIMPLE = MediaType.valueOf(SimplePidRecord.CONTENT_TYPE);
+
+    private final SimplePidRecordConverter converter = new SimplePidRecordConverter();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final HttpOutputMessage outputMessage = new HttpOutputMessage() {
+        @Override
+        public OutputStream getBody() {
+            return output;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return new HttpHeaders();
+        }
+    };
+
+    private PIDRecord record;
+    private SimplePidRecord simpleRecord;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        record = BenchmarkFixtures.fakeRecord();
+        simpleRecord = new SimplePidRecord(record);
+        converter.write(record, SIMPLE, outputMessage);
+        json = output.toByteArray();
+    }
+
+    @Benchmark
+    public SimplePidRecord toSimpleRecord() {
+        return new SimplePidRecord(record);
+    }
+
+    @Benchmark
+    public PIDRecord fromSimpleRecord() {
+        return new PIDRecord(simpleRecord);
+    }
+
+    @Benchmark
+    public int writeJson() throws IOException {
+        output.reset();
+        converter.write(record, SIMPLE, outputMessage);
+        return output.size();
+    }
+
+    @Benchmark
+    public PIDRecord readJson() throws IOException {
+        return converter.read(PIDRecord.class, new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(json);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+        });
+    }
+}
@@ -19,15 +19,23 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.common.base.Ticker;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
 
 import edu.kit.datamanager.pit.configuration.ApplicationProperties;
 import edu.kit.datamanager.pit.domain.PIDRecord;
 import edu.kit.datamanager.pit.domain.TypeDefinition;
 import edu.kit.datamanager.pit.pidsystem.IIdentifierSystem;
+import edu.kit.datamanager.pit.pidsystem.IPidGenerator;
+import edu.kit.datamanager.pit.pidsystem.impl.CachingIdentifierSystem;
+import edu.kit.datamanager.pit.pidsystem.impl.generator.NodeCounterPidGenerator;
+import edu.kit.datamanager.pit.pidsystem.impl.generator.RandomUuidPidGenerator;
+import edu.kit.datamanager.pit.pidsystem.impl.generator.TimeOrderedUuidPidGenerator;
 import edu.kit.datamanager.pit.pitservice.ITypingService;
 import edu.kit.datamanager.pit.pitservice.impl.TypingService;
 import edu.kit.datamanager.pit.typeregistry.ITypeRegistry;
@@ -37,8 +45,16 @@ import edu.kit.datamanager.security.filter.KeycloakJwtProperties;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.cache.CacheConfig;
 import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
@@ -46,6 +62,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.InjectionPoint;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
@@ -92,8 +109,35 @@ public class Application {
     }
 
     @Bean
-    public ITypingService typingService(IIdentifierSystem identifierSystem, ApplicationProperties props) throws IOException {
-        return new TypingService(identifierSystem, typeRegistry(), typeCache(props));
+    public ITypingService typingService(
+            IIdentifierSystem identifierSystem,
+            LoadingCache<String, TypeDefinition> typeCache,
+            ApplicationProperties props,
+            MeterRegistry meterRegistry) throws IOException {
+        if (props.isPidRecordCacheEnabled()) {
+            identifierSystem = new CachingIdentifierSystem(
+                identifierSystem,
+                Duration.ofSeconds(props.getPidRecordCacheLifetime()),
+                Duration.ofSeconds(props.getPidNotFoundCacheLifetime()),
+                props.getPidRecordCacheMaxEntries(),
+                meterRegistry);
+        }
+        return new TypingService(identifierSystem, typeRegistry(), typeCache);
+    }
+
+    @Bean
+    public IPidGenerator pidGenerator(ApplicationProperties props) {
+        switch (props.getPidGenerator()) {
+            case RANDOM_UUID:
+                return new RandomUuidPidGenerator();
+            case NODE_COUNTER:
+                NodeCounterPidGenerator generator = new NodeCounterPidGenerator(props.getPidGeneratorNodeId());
+                LOG.info("Generating PIDs with node ID {}.", generator.getNodeId());
+                return generator;
+            case UUID_V7:
+            default:
+                return new TimeOrderedUuidPidGenerator();
+        }
     }
 
     @Bean(name = "OBJECT_MAPPER_BEAN")
@@ -136,13 +180,76 @@ public class Application {
                 .build();
     }
 
+    /**
+     * Executor used to resolve the sub-types of a type definition concurrently.
+     * 
+     * A ForkJoinPool is used on purpose: sub-type loads may trigger further
+     * (nested) sub-type loads which wait for their results. The type registry
+     * announces these waits as managed blocks, so the pool adds workers instead
+     * of starving on nested profiles. Cyclic references are rejected, and every
+     * wait is bounded by `pit.typeregistry.cache.loaderTimeoutSeconds`.
+     */
+    @Bean(name = "TYPE_LOADER_EXECUTOR", destroyMethod = "shutdown")
+    public ExecutorService typeLoaderExecutor(ApplicationProperties props) {
+        return new ForkJoinPool(Math.max(1, props.getLoaderParallelism()));
+    }
+
+    /**
+     * Executor used to validate and register records of batch requests. Its size
+     * bounds the number of concurrent registrations at the PID system.
+     */
+    @Bean(name = "BATCH_EXECUTOR", destroyMethod = "shutdown")
+    public ExecutorService batchExecutor(ApplicationProperties props) {
+        return Executors.newFixedThreadPool(Math.max(1, props.getBatchParallelism()));
+    }
+
+    /**
+     * Executor used to resolve the PIDs of bulk resolve requests. It is separate
+     * from the batch executor, so large resolve requests do not delay batch
+     * registrations, and vice versa.
+     */
+    @Bean(name = "RESOLVE_EXECUTOR", destroyMethod = "shutdown")
+    public ExecutorService resolveExecutor(ApplicationProperties props) {
+        return Executors.newFixedThreadPool(Math.max(1, props.getResolveParallelism()));
+    }
+
+    /**
+     * Cache for type definitions.
+     * 
+     * If `pit.typeregistry.cache.refreshAfterMinutes` is set, stale entries are
+     * still served while they are reloaded in the background. If such a reload
+     * fails, the last known definition is kept and the failure is counted in the
+     * `pit.typeregistry.cache.refresh.failures` metric. The lifetime then only
+     * applies if it is longer than the refresh interval. As failed reloads do not
+     * renew an entry, it is evicted after its lifetime if the type registry keeps
+     * failing, as well as if it has not been requested for a long time.
+     */
     @Bean
-    public LoadingCache<String, TypeDefinition> typeCache(ApplicationProperties props){
+    public LoadingCache<String, TypeDefinition> typeCache(
+            ApplicationProperties props,
+            @Qualifier("TYPE_LOADER_EXECUTOR") ExecutorService typeLoaderExecutor,
+            MeterRegistry meterRegistry) {
         int maximumsize = props.getMaximumSize();
         long expireafterwrite = props.getExpireAfterWrite();
-        return CacheBuilder.newBuilder()
+        long refreshafterwrite = props.getRefreshAfterWrite();
+        Counter refreshFailures = Counter.builder("pit.typeregistry.cache.refresh.failures")
+                .description("Number of failed background reloads of cached type definitions.")
+                .register(meterRegistry);
+
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
                 .maximumSize(maximumsize)
-                .expireAfterWrite(expireafterwrite, TimeUnit.MINUTES)
+                .ticker(typeCacheTicker())
+                .recordStats();
+        if (refreshafterwrite > 0) {
+            builder.refreshAfterWrite(refreshafterwrite, TimeUnit.MINUTES);
+            if (expireafterwrite > refreshafterwrite) {
+                builder.expireAfterWrite(expireafterwrite, TimeUnit.MINUTES);
+            }
+        } else {
+            builder.expireAfterWrite(expireafterwrite, TimeUnit.MINUTES);
+        }
+
+        LoadingCache<String, TypeDefinition> cache = builder
                 .removalListener((RemovalNotification<String, TypeDefinition> rn) -> LOG.trace(
                         "Removing type definition located at {} from schema cache. Cause: {}", rn.getKey(),
                         rn.getCause()))
@@ -152,7 +259,35 @@ public class Application {
                         LOG.trace("Loading type definition for identifier {} to cache.", typeIdentifier);
                         return typeRegistry().queryTypeDefinition(typeIdentifier);
                     }
+
+                    @Override
+                    public ListenableFuture<TypeDefinition> reload(String typeIdentifier, TypeDefinition oldValue) {
+                        ListenableFutureTask<TypeDefinition> task = ListenableFutureTask.create(() -> {
+                            try {
+                                LOG.trace("Refreshing type definition for identifier {} in cache.", typeIdentifier);
+                                return load(typeIdentifier);
+                            } catch (Exception e) {
+                                // Failing the reload keeps the cached definition without
+                                // renewing it, so the lifetime still applies.
+                                refreshFailures.increment();
+                                LOG.warn("Failed to refresh type definition {}. Keeping the cached definition.",
+                                        typeIdentifier, e);
+                                throw e;
+                            }
+                        });
+                        typeLoaderExecutor.execute(task);
+                        return task;
+                    }
                 });
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "typeCache");
+        return cache;
+    }
+
+    /**
+     * @return the time source of the type cache.
+     */
+    protected Ticker typeCacheTicker() {
+        return Ticker.systemTicker();
     }
 
     @Bean
@@ -0,0 +1,21 @@
+package edu.kit.datamanager.pit.common;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Indicates that a PID could not be registered, as it already exists.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class PidAlreadyExistsException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	public PidAlreadyExistsException(String pid) {
+		super("Identifier with value " + pid + " already exists.");
+	}
+
+}
@@ -0,0 +1,22 @@
+package edu.kit.datamanager.pit.common;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Indicates that a precondition of a conditional request (e.g. `If-Match`) did
+ * not hold, so the request has not been executed.
+ */
+@ResponseStatus(value = HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	public PreconditionFailedException(String message) {
+		super(message);
+	}
+
+}
@@ -17,6 +17,7 @@ package edu.kit.datamanager.pit.configuration;
 
 import edu.kit.datamanager.configuration.GenericApplicationProperties;
 import java.net.URL;
+import java.util.List;
 
 import javax.validation.constraints.NotNull;
 
@@ -52,6 +53,22 @@ public class ApplicationProperties extends GenericApplicationProperties {
   @NotNull
   private IdentifierSystemImpl identifierSystemImplementation;
 
+  public enum PidGeneratorImpl {
+    // random (version 4) UUIDs
+    RANDOM_UUID,
+    // time-ordered (version 7) UUIDs
+    UUID_V7,
+    // node ID and counter, requires a unique node ID per instance
+    NODE_COUNTER;
+  }
+
+  @Value("${pit.pidsystem.generator.strategy:uuid-v7}")
+  @NotNull
+  private PidGeneratorImpl pidGenerator = PidGeneratorImpl.UUID_V7;
+
+  @Value("${pit.pidsystem.generator.nodeId:}")
+  private String pidGeneratorNodeId;
+
   public enum ValidationStrategy {
     EMBEDDED_STRICT,
     NONE_DEBUG;
@@ -94,6 +111,48 @@ public class ApplicationProperties extends GenericApplicationProperties {
   @Value("${pit.typeregistry.cache.lifetimeMinutes:10}")
   private long expireAfterWrite;
 
+  @Value("${pit.typeregistry.cache.refreshAfterMinutes:0}")
+  private long refreshAfterWrite;
+
+  @Value("${pit.typeregistry.cache.persistent:false}")
+  private boolean persistentTypeCache;
+
+  @Value("${pit.typeregistry.cache.preload:}")
+  private List<String> preloadedTypes;
+
+  @Value("${pit.typeregistry.cache.loaderParallelism:8}")
+  private int loaderParallelism;
+
+  @Value("${pit.typeregistry.cache.loaderTimeoutSeconds:60}")
+  private long loaderTimeout;
+
+  @Value("${pit.batch.parallelism:8}")
+  private int batchParallelism;
+
+  @Value("${pit.batch.resolveParallelism:8}")
+  private int resolveParallelism;
+
+  @Value("${pit.batch.maxSize:1000}")
+  private int batchMaxSize;
+
+  @Value("${pit.pidlog.async.enabled:false}")
+  private boolean asyncPidLog;
+
+  @Value("${pit.pidlog.async.queueCapacity:10000}")
+  private int pidLogQueueCapacity;
+
+  @Value("${pit.pidsystem.cache.enabled:false}")
+  private boolean pidRecordCacheEnabled;
+
+  @Value("${pit.pidsystem.cache.lifetimeSeconds:60}")
+  private long pidRecordCacheLifetime;
+
+  @Value("${pit.pidsystem.cache.notFoundLifetimeSeconds:10}")
+  private long pidNotFoundCacheLifetime;
+
+  @Value("${pit.pidsystem.cache.maxEntries:10000}")
+  private long pidRecordCacheMaxEntries;
+
   @Value("${pit.validation.profileKey:21.T11148/076759916209e5d62bd5}")
   private String profileKey;
 
@@ -153,6 +212,134 @@ public class ApplicationProperties extends GenericApplicationProperties {
     this.expireAfterWrite = expireAfterWrite;
   }
 
+  public long getRefreshAfterWrite() {
+    return refreshAfterWrite;
+  }
+
+  public void setRefreshAfterWrite(long refreshAfterWrite) {
+    this.refreshAfterWrite = refreshAfterWrite;
+  }
+
+  public boolean isPersistentTypeCache() {
+    return persistentTypeCache;
+  }
+
+  public void setPersistentTypeCache(boolean persistentTypeCache) {
+    this.persistentTypeCache = persistentTypeCache;
+  }
+
+  public List<String> getPreloadedTypes() {
+    return preloadedTypes;
+  }
+
+  public void setPreloadedTypes(List<String> preloadedTypes) {
+    this.preloadedTypes = preloadedTypes;
+  }
+
+  public int getLoaderParallelism() {
+    return loaderParallelism;
+  }
+
+  public void setLoaderParallelism(int loaderParallelism) {
+    this.loaderParallelism = loaderParallelism;
+  }
+
+  public long getLoaderTimeout() {
+    return loaderTimeout;
+  }
+
+  public void setLoaderTimeout(long loaderTimeout) {
+    this.loaderTimeout = loaderTimeout;
+  }
+
+  public int getBatchParallelism() {
+    return batchParallelism;
+  }
+
+  public void setBatchParallelism(int batchParallelism) {
+    this.batchParallelism = batchParallelism;
+  }
+
+  public int getResolveParallelism() {
+    return resolveParallelism;
+  }
+
+  public void setResolveParallelism(int resolveParallelism) {
+    this.resolveParallelism = resolveParallelism;
+  }
+
+  public int getBatchMaxSize() {
+    return batchMaxSize;
+  }
+
+  public void setBatchMaxSize(int batchMaxSize) {
+    this.batchMaxSize = batchMaxSize;
+  }
+
+  public boolean isAsyncPidLog() {
+    return asyncPidLog;
+  }
+
+  public void setAsyncPidLog(boolean asyncPidLog) {
+    this.asyncPidLog = asyncPidLog;
+  }
+
+  public int getPidLogQueueCapacity() {
+    return pidLogQueueCapacity;
+  }
+
+  public void setPidLogQueueCapacity(int pidLogQueueCapacity) {
+    this.pidLogQueueCapacity = pidLogQueueCapacity;
+  }
+
+  public PidGeneratorImpl getPidGenerator() {
+    return pidGenerator;
+  }
+
+  public void setPidGenerator(PidGeneratorImpl pidGenerator) {
+    this.pidGenerator = pidGenerator;
+  }
+
+  public String getPidGeneratorNodeId() {
+    return pidGeneratorNodeId;
+  }
+
+  public void setPidGeneratorNodeId(String pidGeneratorNodeId) {
+    this.pidGeneratorNodeId = pidGeneratorNodeId;
+  }
+
+  public boolean isPidRecordCacheEnabled() {
+    return pidRecordCacheEnabled;
+  }
+
+  public void setPidRecordCacheEnabled(boolean pidRecordCacheEnabled) {
+    this.pidRecordCacheEnabled = pidRecordCacheEnabled;
+  }
+
+  public long getPidRecordCacheLifetime() {
+    return pidRecordCacheLifetime;
+  }
+
+  public void setPidRecordCacheLifetime(long pidRecordCacheLifetime) {
+    this.pidRecordCacheLifetime = pidRecordCacheLifetime;
+  }
+
+  public long getPidNotFoundCacheLifetime() {
+    return pidNotFoundCacheLifetime;
+  }
+
+  public void setPidNotFoundCacheLifetime(long pidNotFoundCacheLifetime) {
+    this.pidNotFoundCacheLifetime = pidNotFoundCacheLifetime;
+  }
+
+  public long getPidRecordCacheMaxEntries() {
+    return pidRecordCacheMaxEntries;
+  }
+
+  public void setPidRecordCacheMaxEntries(long pidRecordCacheMaxEntries) {
+    this.pidRecordCacheMaxEntries = pidRecordCacheMaxEntries;
+  }
+
   public StorageStrategy getStorageStrategy() {
     return storageStrategy;
   }
@@ -1,5 +1,7 @@
 package edu.kit.datamanager.pit.configuration;
 
+import java.time.Duration;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -35,6 +37,19 @@ public class HandleProtocolProperties {
     @Nullable
     private HandleCredentials credentials;
 
+    // Number of handle clients, i.e. the maximum of concurrent operations.
+    private int poolSize = 8;
+    // How long an operation may wait for a free client.
+    private Duration acquireTimeout = Duration.ofSeconds(10);
+    // Timeout of a single TCP request to a handle server.
+    private Duration requestTimeout = Duration.ofSeconds(10);
+    // How often operations are retried on transient errors.
+    private int maxRetries = 2;
+    // Delay before the first retry, doubled for every further retry.
+    private Duration retryBackoff = Duration.ofMillis(200);
+    // Try UDP first for resolution, fall back to TCP.
+    private boolean useUdp = true;
+
     public HandleCredentials getCredentials() {
         return credentials;
     }
@@ -42,4 +57,52 @@ public class HandleProtocolProperties {
     public void setCredentials(HandleCredentials credentials) {
         this.credentials = credentials;
     }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public boolean isUseUdp() {
+        return useUdp;
+    }
+
+    public void setUseUdp(boolean useUdp) {
+        this.useUdp = useUdp;
+    }
 }
@@ -33,6 +33,18 @@ public class HandleSystemRESTProperties {
     @Value("${pit.pidsystem.handle.generatorPrefix}")
     private String generatorPrefix;
 
+    @Value("${pit.pidsystem.handle.http.maxConnections:200}")
+    private int maxConnections;
+
+    @Value("${pit.pidsystem.handle.http.connectTimeoutMillis:5000}")
+    private int connectTimeoutMillis;
+
+    @Value("${pit.pidsystem.handle.http.readTimeoutMillis:10000}")
+    private int readTimeoutMillis;
+
+    @Value("${pit.pidsystem.handle.http.keepAliveSeconds:30}")
+    private long keepAliveSeconds;
+
     public String getHandleUser() {
         return handleUser;
     }
@@ -56,4 +68,49 @@ public class HandleSystemRESTProperties {
     public void setGeneratorPrefix(String generatorPrefix) {
         this.generatorPrefix = generatorPrefix;
     }
+
+    /**
+     * @return the maximum number of pooled connections to the handle server.
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * @return the timeout for establishing a connection, also used as the
+     *         maximum time to wait for a free pooled connection.
+     */
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * @return the maximum time of inactivity while waiting for response data.
+     */
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public void setReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * @return how long idle connections are kept alive at most.
+     */
+    public long getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public void setKeepAliveSeconds(long keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
 }
@@ -0,0 +1,174 @@
+package edu.kit.datamanager.pit.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * An immutable, memory-efficient representation of a PID record, intended for
+ * caches and other places which hold many records.
+ * 
+ * In contrast to `PIDRecord`, it does not hold an object per value. Keys are
+ * sorted and stored once, values are stored in one flat array, and a name is
+ * stored once per key. Keys and names are interned, so records sharing the
+ * same types share the same strings.
+ * 
+ * Convert to `PIDRecord` (`toPidRecord()`) wherever a record is modified or
+ * leaves the service.
+ */
+public final class CompactPidRecord {
+
+    private static final Interner<String> INTERNER = Interners.newWeakInterner();
+    private static final String[] NO_STRINGS = new String[0];
+    private static final int[] NO_OFFSETS = new int[] {0};
+
+    private final String pid;
+    /** Sorted property identifiers. */
+    private final String[] keys;
+    /** The name of each key (i.e. of its first value). */
+    private final String[] names;
+    /** Values of keys[i] are values[offsets[i]] to values[offsets[i + 1] - 1]. */
+    private final int[] offsets;
+    private final String[] values;
+
+    private CompactPidRecord(String pid, String[] keys, String[] names, int[] offsets, String[] values) {
+        this.pid = pid;
+        this.keys = keys;
+        this.names = names;
+        this.offsets = offsets;
+        this.values = values;
+    }
+
+    /**
+     * Creates a compact copy of the given record.
+     * 
+     * If values of one key have different names, only the first name is kept.
+     * 
+     * @param record the record to copy.
+     * @return the compact representation.
+     */
+    public static CompactPidRecord of(PIDRecord record) {
+        Map<String, List<PIDRecordEntry>> entries = record.getEntries();
+        if (entries.isEmpty()) {
+            return new CompactPidRecord(record.getPid(), NO_STRINGS, NO_STRINGS, NO_OFFSETS, NO_STRINGS);
+        }
+        String[] keys = entries.keySet().toArray(NO_STRINGS);
+        Arrays.sort(keys);
+        String[] names = new String[keys.length];
+        int[] offsets = new int[keys.length + 1];
+        int size = 0;
+        for (List<PIDRecordEntry> list : entries.values()) {
+            size += list.size();
+        }
+        String[] values = new String[size];
+        int position = 0;
+        for (int i = 0; i < keys.length; i++) {
+            List<PIDRecordEntry> list = entries.get(keys[i]);
+            keys[i] = intern(keys[i]);
+            names[i] = list.isEmpty() ? "" : intern(list.get(0).getName());
+            offsets[i] = position;
+            for (PIDRecordEntry entry : list) {
+                values[position++] = entry.getValue();
+            }
+        }
+        offsets[keys.length] = position;
+        return new CompactPidRecord(record.getPid(), keys, names, offsets, values);
+    }
+
+    private static String intern(String s) {
+        return s == null ? null : INTERNER.intern(s);
+    }
+
+    /**
+     * Creates a full (mutable) record with the same content.
+     * 
+     * @return a new record.
+     */
+    public PIDRecord toPidRecord() {
+        PIDRecord record = new PIDRecord();
+        record.setPid(pid);
+        for (int i = 0; i < keys.length; i++) {
+            List<PIDRecordEntry> list = new ArrayList<>(offsets[i + 1] - offsets[i]);
+            for (int v = offsets[i]; v < offsets[i + 1]; v++) {
+                PIDRecordEntry entry = new PIDRecordEntry();
+                entry.setKey(keys[i]);
+                entry.setName(names[i]);
+                entry.setValue(values[v]);
+                list.add(entry);
+            }
+            record.getEntries().put(keys[i], list);
+        }
+        return record;
+    }
+
+    /**
+     * Returns a copy with the given PID. The content is shared, not copied.
+     * 
+     * @param pid the new PID.
+     * @return the record with the new PID.
+     */
+    public CompactPidRecord withPid(String pid) {
+        return new CompactPidRecord(pid, keys, names, offsets, values);
+    }
+
+    public String getPid() {
+        return pid;
+    }
+
+    /**
+     * @return the sorted property identifiers of this record.
+     */
+    public List<String> getPropertyIdentifiers() {
+        return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    public boolean hasProperty(String propertyIdentifier) {
+        return Arrays.binarySearch(keys, propertyIdentifier) >= 0;
+    }
+
+    /**
+     * Get all values of a given property.
+     * 
+     * @param propertyIdentifier the given property identifier.
+     * @return all values of the given property, empty if the property is not
+     *         present.
+     */
+    public String[] getPropertyValues(String propertyIdentifier) {
+        int i = Arrays.binarySearch(keys, propertyIdentifier);
+        if (i < 0) {
+            return NO_STRINGS;
+        }
+        return Arrays.copyOfRange(values, offsets[i], offsets[i + 1]);
+    }
+
+    /**
+     * Get the first value of a given property.
+     * 
+     * @param propertyIdentifier the given property identifier.
+     * @return the first value, or null if the property is not present.
+     */
+    public String getPropertyValue(String propertyIdentifier) {
+        int i = Arrays.binarySearch(keys, propertyIdentifier);
+        if (i < 0 || offsets[i] == offsets[i + 1]) {
+            return null;
+        }
+        return values[offsets[i]];
+    }
+
+    /**
+     * @return the number of values in this record.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactPidRecord [pid=" + pid + ", keys=" + Arrays.toString(keys) + ", size=" + values.length + "]";
+    }
+}
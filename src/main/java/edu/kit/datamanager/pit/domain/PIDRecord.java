@@ -6,15 +6,20 @@
 package edu.kit.datamanager.pit.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 import edu.kit.datamanager.pit.pidsystem.impl.local.PidDatabaseObject;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
@@ -58,6 +63,18 @@ public class PIDRecord {
         });
     }
 
+    /**
+     * Creates a deep copy of the given record, including PID and names.
+     * 
+     * @param other the record to copy.
+     */
+    public PIDRecord(PIDRecord other) {
+        this.setPid(other.getPid());
+        other.getEntries().values().stream()
+            .flatMap(List<PIDRecordEntry>::stream)
+            .forEach(entry -> this.addEntry(entry.getKey(), entry.getName(), entry.getValue()));
+    }
+
     public PIDRecord(SimplePidRecord rec) {
         this.entries = new HashMap<>();
         for (SimplePair pair : rec.getPairs()) {
@@ -152,14 +169,12 @@ public class PIDRecord {
     public boolean checkTypeConformance(edu.kit.datamanager.pit.domain.TypeDefinition typeDef) {
         // TODO Validation should be externalized, so validation strategies can be exchanged.
         // TODO Validation should be kept in one place, e.g. a special module.
-        boolean conf = true;
-        for (String p : typeDef.getAllProperties()) {
-            if (!typeDef.getSubTypes().get(p).isOptional() && !entries.containsKey(p)) {
-                conf = false;
-                break;
+        for (String p : typeDef.getMandatoryProperties()) {
+            if (!entries.containsKey(p)) {
+                return false;
             }
         }
-        return conf;
+        return true;
     }
 
     /**
@@ -203,12 +218,65 @@ public class PIDRecord {
         return values.toArray(new String[] {});
     }
 
+    /**
+     * Calculates a SHA-256 hash over the content of this record.
+     * 
+     * Like `equals`, it only considers keys and values. It does not depend on
+     * the order of keys or values, and it does not include the PID, so a record
+     * can be compared to its content before registration.
+     * 
+     * @return the hash as a lower case hex string.
+     */
+    @JsonIgnore
+    public String getContentHash() {
+        Hasher hasher = Hashing.sha256().newHasher();
+        List<String> keys = new ArrayList<>(entries.keySet());
+        keys.sort(null);
+        for (String key : keys) {
+            List<String> values = new ArrayList<>();
+            for (PIDRecordEntry entry : entries.get(key)) {
+                values.add(entry.getValue());
+            }
+            values.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+            putString(hasher, key);
+            hasher.putInt(values.size());
+            for (String value : values) {
+                putString(hasher, value);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    /** Writes a length prefix, so that concatenated strings are unambiguous. */
+    private static void putString(Hasher hasher, String s) {
+        if (s == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(s.length());
+            hasher.putString(s, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Consistent with `equals`: names as well as the order of keys and values
+     * do not influence the hash code.
+     */
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((pid == null) ? 0 : pid.hashCode());
-        result = prime * result + ((entries == null) ? 0 : entries.hashCode());
+        if (entries != null) {
+            int entriesHash = 0;
+            for (Map.Entry<String, List<PIDRecordEntry>> e : entries.entrySet()) {
+                int valuesHash = 0;
+                for (PIDRecordEntry entry : e.getValue()) {
+                    valuesHash += Objects.hashCode(entry.getValue());
+                }
+                entriesHash += e.getKey().hashCode() ^ valuesHash;
+            }
+            result = prime * result + entriesHash;
+        }
         return result;
     }
 
@@ -217,6 +285,7 @@ public class PIDRecord {
      * 
      * - Ignores the name attribute: Only keys and values matter.
      * - Ignores order of keys or values
+     * - Values are compared as multisets: duplicates must occur equally often.
      */
     @Override
     public boolean equals(Object obj) {
@@ -234,19 +303,42 @@ public class PIDRecord {
         if (entries == null) {
             return other.entries == null;
         } else {
+            if (other.entries == null) {return false;}
             // Equal means:
             // 1. have the same set of keys
-            boolean isEqual = this.entries.keySet().equals(other.getEntries().keySet());
-            if (!isEqual) {return false;}
+            if (this.entries.size() != other.entries.size()) {return false;}
             // 2. for each key, have the same values (order does not matter)
-            isEqual &= this.entries.values().stream()
-                .flatMap(List<PIDRecordEntry>::stream)
-                .filter(entry -> other.entries.get(entry.getKey()).stream()
-                    .filter(otherEntry -> otherEntry.getValue().equals(entry.getValue()))
-                    .count() == 0 // keep key-value-pairs with values not present in `other`.
-                )
-                .count() == 0; // there should be no pairs with values which are not available in `other`.
-            return isEqual;
+            for (Map.Entry<String, List<PIDRecordEntry>> e : this.entries.entrySet()) {
+                List<PIDRecordEntry> otherValues = other.entries.get(e.getKey());
+                if (otherValues == null || !sameValues(e.getValue(), otherValues)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Compares the values of two entry lists, ignoring order, in linear time.
+     */
+    private static boolean sameValues(List<PIDRecordEntry> a, List<PIDRecordEntry> b) {
+        if (a.size() != b.size()) {return false;}
+        if (a.size() == 1) {
+            return Objects.equals(a.get(0).getValue(), b.get(0).getValue());
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (PIDRecordEntry entry : a) {
+            counts.merge(entry.getValue(), 1, Integer::sum);
+        }
+        for (PIDRecordEntry entry : b) {
+            Integer count = counts.get(entry.getValue());
+            if (count == null) {return false;}
+            if (count == 1) {
+                counts.remove(entry.getValue());
+            } else {
+                counts.put(entry.getValue(), count - 1);
+            }
         }
+        return counts.isEmpty();
     }
 }
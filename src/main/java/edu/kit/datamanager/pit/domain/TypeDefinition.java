@@ -8,12 +8,17 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import edu.kit.datamanager.pit.util.ProfileValidator;
+import edu.kit.datamanager.pit.util.SchemaCache;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
-import org.everit.json.schema.loader.SchemaLoader;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,15 +50,134 @@ public class TypeDefinition {
     @JsonIgnore
     private TypeDefinition resolvedTypeDefinition;
 
+    /**
+     * Validator compiled from the sub-types, created on first use and dropped
+     * whenever the sub-types change.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile ProfileValidator validator;
+
+    /**
+     * Property identifier sets derived from the sub-types, created on first use
+     * and dropped whenever the sub-types change.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile PropertySets propertySets;
+
+    private static final class PropertySets {
+        private final Set<String> all;
+        private final Set<String> mandatory;
+        private final Set<String> optional;
+
+        private PropertySets(Map<String, TypeDefinition> subTypes) {
+            Set<String> mandatoryProperties = new HashSet<>();
+            Set<String> optionalProperties = new HashSet<>();
+            subTypes.forEach((property, type) -> {
+                if (type.isOptional()) {
+                    optionalProperties.add(property);
+                } else {
+                    mandatoryProperties.add(property);
+                }
+            });
+            this.all = Set.copyOf(subTypes.keySet());
+            this.mandatory = Set.copyOf(mandatoryProperties);
+            this.optional = Set.copyOf(optionalProperties);
+        }
+    }
+
+    private PropertySets getPropertySets() {
+        PropertySets result = this.propertySets;
+        if (result == null) {
+            result = new PropertySets(subTypes);
+            this.propertySets = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the validator for records of this profile. It reflects the
+     * sub-types (including their obligations) at the time it was compiled.
+     * 
+     * @return the validator for this profile.
+     */
+    @JsonIgnore
+    public ProfileValidator getValidator() {
+        ProfileValidator result = this.validator;
+        if (result == null) {
+            result = ProfileValidator.of(this);
+            this.validator = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a shallow copy of this definition. Changing the copy, e.g. its
+     * obligation within a profile, does not affect this definition. Sub-types
+     * are shared.
+     * 
+     * @return a copy of this definition.
+     */
+    public TypeDefinition copy() {
+        TypeDefinition copy = new TypeDefinition();
+        copy.name = this.name;
+        copy.identifier = this.identifier;
+        copy.description = this.description;
+        copy.optional = this.optional;
+        copy.repeatable = this.repeatable;
+        copy.expression = this.expression;
+        copy.value = this.value;
+        copy.jsonSchema = this.jsonSchema;
+        copy.provenance = this.provenance;
+        copy.subTypes = new HashMap<>(this.subTypes);
+        copy.resolvedTypeDefinition = this.resolvedTypeDefinition;
+        // both only depend on the sub-types, which are the same
+        copy.validator = this.validator;
+        copy.propertySets = this.propertySets;
+        return copy;
+    }
+
+    public void setSubTypes(Map<String, TypeDefinition> subTypes) {
+        this.subTypes = subTypes;
+        this.validator = null;
+        this.propertySets = null;
+    }
+
+    /**
+     * Returns the identifiers of all properties (sub-types) of this type.
+     * 
+     * @return an immutable set of property identifiers.
+     */
     @JsonIgnore
     public Set<String> getAllProperties() {
-        Set<String> props = new HashSet<>();
-        Set<Entry<String, TypeDefinition>> entries = subTypes.entrySet();
-        entries.forEach((entry) -> {
-            props.add(entry.getKey());
-        });
+        return getPropertySets().all;
+    }
 
-        return props;
+    /**
+     * Returns the identifiers of all mandatory properties of this type.
+     * 
+     * @return an immutable set of property identifiers.
+     */
+    @JsonIgnore
+    public Set<String> getMandatoryProperties() {
+        return getPropertySets().mandatory;
+    }
+
+    /**
+     * Returns the identifiers of all optional properties of this type.
+     * 
+     * @return an immutable set of property identifiers.
+     */
+    @JsonIgnore
+    public Set<String> getOptionalProperties() {
+        return getPropertySets().optional;
     }
 
     public void setSchema(String schema) {
@@ -61,8 +185,7 @@ public class TypeDefinition {
             return;
         }
 
-        JSONObject jsonSchema = new JSONObject(schema);
-        this.jsonSchema = SchemaLoader.load(jsonSchema);
+        this.jsonSchema = SchemaCache.load(schema);
     }
 
     /**
@@ -98,10 +221,12 @@ public class TypeDefinition {
     }
 
     public boolean isOptional(String property) {
-        return subTypes.get(property).isOptional();
+        return getPropertySets().optional.contains(property);
     }
 
     public void addSubType(TypeDefinition subType) {
         subTypes.put(subType.getIdentifier(), subType);
+        this.validator = null;
+        this.propertySets = null;
     }
 }
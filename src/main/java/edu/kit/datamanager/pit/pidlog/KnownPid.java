@@ -6,6 +6,8 @@ import java.time.temporal.ChronoUnit;
 
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
@@ -15,6 +17,10 @@ import javax.validation.constraints.NotNull;
  * The use of storing this information is to have a logbook of all created PIDs.
  */
 @Entity
+@Table(indexes = {
+    @Index(name = "known_pid_created_idx", columnList = "created, pid"),
+    @Index(name = "known_pid_modified_idx", columnList = "modified, pid")
+})
 public class KnownPid implements Serializable {
     @Id
     @NotBlank(message = "The known PID.")
@@ -0,0 +1,132 @@
+package edu.kit.datamanager.pit.pidlog;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Locale;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Position within the list of known PIDs, ordered by a timestamp and the PID,
+ * for keyset (cursor) pagination.
+ * 
+ * In contrast to page numbers, the cost of fetching the next page does not
+ * grow with the position, and insertions do not shift pages. The cursor is
+ * passed to clients as an opaque string.
+ */
+public class KnownPidCursor {
+
+    /** The timestamp the known PIDs are ordered by. */
+    public enum Order {
+        CREATED("created"),
+        MODIFIED("modified");
+
+        private final String attribute;
+
+        Order(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        public Instant timestampOf(KnownPid known) {
+            return this == CREATED ? known.getCreated() : known.getModified();
+        }
+
+        public Sort sort() {
+            return Sort.by(attribute, "pid");
+        }
+
+        /**
+         * @param name the name of the order, case-insensitive.
+         * @throws IllegalArgumentException if there is no such order.
+         */
+        public static Order of(String name) {
+            return Order.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final Order order;
+    private final Instant timestamp;
+    private final String pid;
+
+    /**
+     * @param order     the order of the pages.
+     * @param timestamp the timestamp of the last returned PID, or null for the
+     *                  first page.
+     * @param pid       the last returned PID, or null for the first page.
+     */
+    public KnownPidCursor(Order order, Instant timestamp, String pid) {
+        this.order = order;
+        this.timestamp = timestamp;
+        this.pid = pid;
+    }
+
+    /**
+     * @return the cursor to the first page.
+     */
+    public static KnownPidCursor start(Order order) {
+        return new KnownPidCursor(order, null, null);
+    }
+
+    /**
+     * @return the cursor pointing after the given PID.
+     */
+    public KnownPidCursor after(KnownPid known) {
+        return new KnownPidCursor(order, order.timestampOf(known), known.getPid());
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public boolean isStart() {
+        return pid == null;
+    }
+
+    /**
+     * @return a specification matching all PIDs after this cursor.
+     */
+    public Specification<KnownPid> toSpecification() {
+        if (isStart()) {
+            return (root, query, builder) -> null;
+        }
+        return KnownPidSpecifications.after(order.getAttribute(), timestamp, pid);
+    }
+
+    /**
+     * @return the opaque, URL-safe string representation of this cursor.
+     */
+    public String encode() {
+        String plain = order.name() + SEPARATOR + timestamp + SEPARATOR + pid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a cursor created by `encode()`.
+     * 
+     * @param encoded the string representation.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the string is not a valid cursor.
+     */
+    public static KnownPidCursor decode(String encoded) {
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            // PIDs may contain the separator, so split only twice
+            String[] parts = plain.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + encoded);
+            }
+            return new KnownPidCursor(Order.valueOf(parts[0]), Instant.parse(parts[1]), parts[2]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + encoded, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.kit.datamanager.pit.pidlog;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specifications to query known PIDs in the database, to be used with
+ * `KnownPidsDao`.
+ * 
+ * All bounds are inclusive. A bound which is null is not applied.
+ */
+public class KnownPidSpecifications {
+
+    private KnownPidSpecifications() {}
+
+    public static Specification<KnownPid> createdBetween(Instant from, Instant to) {
+        return between("created", from, to);
+    }
+
+    public static Specification<KnownPid> modifiedBetween(Instant from, Instant to) {
+        return between("modified", from, to);
+    }
+
+    /**
+     * Combines both intervals, so only PIDs within both intervals match.
+     */
+    public static Specification<KnownPid> createdAndModifiedBetween(
+            Instant createdAfter,
+            Instant createdBefore,
+            Instant modifiedAfter,
+            Instant modifiedBefore) {
+        return createdBetween(createdAfter, createdBefore)
+            .and(modifiedBetween(modifiedAfter, modifiedBefore));
+    }
+
+    /**
+     * Matches PIDs after the given position in the order of (attribute, pid),
+     * used for keyset pagination.
+     * 
+     * @param attribute the timestamp attribute ("created" or "modified").
+     * @param timestamp the timestamp of the last returned PID.
+     * @param pid       the last returned PID.
+     */
+    public static Specification<KnownPid> after(String attribute, Instant timestamp, String pid) {
+        return (root, query, builder) -> builder.or(
+            builder.greaterThan(root.<Instant>get(attribute), timestamp),
+            builder.and(
+                builder.equal(root.get(attribute), timestamp),
+                builder.greaterThan(root.<String>get("pid"), pid)));
+    }
+
+    private static Specification<KnownPid> between(String attribute, Instant from, Instant to) {
+        return (root, query, builder) -> {
+            if (from != null && to != null) {
+                return builder.between(root.<Instant>get(attribute), from, to);
+            } else if (from != null) {
+                return builder.greaterThanOrEqualTo(root.<Instant>get(attribute), from);
+            } else if (to != null) {
+                return builder.lessThanOrEqualTo(root.<Instant>get(attribute), to);
+            }
+            // no restriction
+            return null;
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package edu.kit.datamanager.pit.pidlog;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.kit.datamanager.pit.configuration.ApplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Writes the logbook of known PIDs (`KnownPid`).
+ * 
+ * By default, PIDs are written synchronously. If
+ * `pit.pidlog.async.enabled` is set, PIDs are queued instead and written
+ * periodically by a background task. Repeated touches of the same PID within
+ * one interval are merged into a single write, and all writes of an interval
+ * are sent as one batch. If the queue is full, PIDs are written synchronously
+ * again. The current queue size is available as the
+ * `pit.pidlog.queue.size` metric.
+ * 
+ * PIDs are written with upsert statements in one transaction, so concurrent
+ * writes of the same PID do not conflict. If a background write fails
+ * anyway, its PIDs are queued again for the next attempt.
+ */
+@Component
+public class KnownPidWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KnownPidWriter.class);
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final KnownPidsDao knownPidsDao;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean async;
+    private final BlockingQueue<Touch> queue;
+
+    /**
+     * A request to store a PID, or multiple merged ones.
+     * 
+     * `modified` is the time of the latest request with `update` set, or null
+     * if there was none.
+     */
+    private static class Touch {
+        final String pid;
+        final Instant first;
+        final Instant modified;
+
+        Touch(String pid, Instant first, Instant modified) {
+            this.pid = pid;
+            this.first = first;
+            this.modified = modified;
+        }
+
+        Touch merge(Touch other) {
+            Instant latestModification = modified;
+            if (latestModification == null
+                    || (other.modified != null && other.modified.isAfter(latestModification))) {
+                latestModification = other.modified;
+            }
+            return new Touch(
+                pid,
+                first.isBefore(other.first) ? first : other.first,
+                latestModification);
+        }
+    }
+
+    public KnownPidWriter(
+            KnownPidsDao knownPidsDao,
+            ApplicationProperties props,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.knownPidsDao = knownPidsDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.async = props.isAsyncPidLog();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, props.getPidLogQueueCapacity()));
+        Gauge.builder("pit.pidlog.queue.size", queue, BlockingQueue::size)
+            .description("Number of PIDs waiting to be written to the logbook of known PIDs.")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Stores the PID in the logbook.
+     * 
+     * @param pid    the PID
+     * @param update if true, updates the modified timestamp if it already exists.
+     *               If it does not exist, it will be created with both timestamps
+     *               (created and modified) being the same.
+     */
+    public void store(String pid, boolean update) {
+        Instant now = Instant.now();
+        Touch touch = new Touch(pid, now, update ? now : null);
+        if (!async || !queue.offer(touch)) {
+            write(List.of(touch));
+        }
+    }
+
+    /**
+     * Stores multiple PIDs in the logbook, like `store(String, boolean)`.
+     * 
+     * @param pids   the PIDs.
+     * @param update if true, updates the modified timestamp of already known
+     *               PIDs.
+     */
+    public void store(Collection<String> pids, boolean update) {
+        Instant now = Instant.now();
+        List<Touch> rejected = new ArrayList<>();
+        for (String pid : pids) {
+            Touch touch = new Touch(pid, now, update ? now : null);
+            if (!async || !queue.offer(touch)) {
+                rejected.add(touch);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            write(rejected);
+        }
+    }
+
+    /**
+     * Writes all queued PIDs to the database.
+     */
+    @Scheduled(fixedDelayString = "${pit.pidlog.async.flushIntervalMillis:1000}")
+    @PreDestroy
+    public void flush() {
+        List<Touch> pending = new ArrayList<>(queue.size());
+        queue.drainTo(pending);
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            write(pending);
+        } catch (DataAccessException e) {
+            // keep the PIDs for the next flush instead of losing them
+            int requeued = 0;
+            for (Touch touch : pending) {
+                if (queue.offer(touch)) {
+                    requeued++;
+                }
+            }
+            LOG.error("Could not write {} PIDs to the logbook of known PIDs, {} of them are queued again.",
+                pending.size(), requeued, e);
+        }
+    }
+
+    private void write(List<Touch> touches) {
+        Map<String, Touch> merged = new LinkedHashMap<>();
+        for (Touch touch : touches) {
+            merged.merge(touch.pid, touch, Touch::merge);
+        }
+        List<KnownPid> resolved = new ArrayList<>();
+        List<KnownPid> modified = new ArrayList<>();
+        for (Touch touch : merged.values()) {
+            Instant created = touch.first.truncatedTo(ChronoUnit.MILLIS);
+            if (touch.modified == null) {
+                resolved.add(new KnownPid(touch.pid, created, created));
+            } else {
+                modified.add(new KnownPid(touch.pid, created, touch.modified.truncatedTo(ChronoUnit.MILLIS)));
+            }
+        }
+        for (int attempt = 1;; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    knownPidsDao.upsertAll(resolved, false);
+                    knownPidsDao.upsertAll(modified, true);
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Some databases let concurrent upserts of the same new PID
+                // collide. The PID exists now, so a retry updates it instead.
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+                LOG.debug("Concurrent write to the logbook of known PIDs, retrying.", e);
+            }
+        }
+    }
+}
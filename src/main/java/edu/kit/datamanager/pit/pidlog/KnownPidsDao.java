@@ -19,7 +19,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
  * as well as the general concept documented in
  * https://docs.spring.io/spring-data/jpa/docs/current/reference/html/#repositories.core-concepts
  */
-public interface KnownPidsDao extends JpaRepository<KnownPid, String>, JpaSpecificationExecutor<KnownPid> {
+public interface KnownPidsDao extends JpaRepository<KnownPid, String>, JpaSpecificationExecutor<KnownPid>, KnownPidsDaoCustom {
     Optional<KnownPid> findByPid(String pid);
 
     Collection<KnownPid> findDistinctPidsByCreated(Instant created);
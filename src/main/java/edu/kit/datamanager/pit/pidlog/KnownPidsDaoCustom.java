@@ -0,0 +1,38 @@
+package edu.kit.datamanager.pit.pidlog;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Queries on known PIDs which can not be derived by spring data. Implemented
+ * in `KnownPidsDaoCustomImpl`.
+ */
+public interface KnownPidsDaoCustom {
+    /**
+     * Like `findAll(Specification, Pageable)`, but without counting all
+     * matching PIDs.
+     * 
+     * @param spec  the specification to match.
+     * @param sort  the order of the results.
+     * @param limit the maximum number of results.
+     * @return up to `limit` matching PIDs.
+     */
+    List<KnownPid> findAll(Specification<KnownPid> spec, Sort sort, int limit);
+
+    /**
+     * Inserts the given PIDs in JDBC batches of upsert statements, without
+     * reading them first.
+     * 
+     * PIDs which are already known keep their creation timestamp. Their
+     * modification timestamp is only advanced if `updateModified` is set and
+     * the given timestamp is later. Call it within a transaction.
+     * 
+     * @param pids           the PIDs to insert or update.
+     * @param updateModified if true, update the modification timestamp of
+     *                       known PIDs.
+     */
+    void upsertAll(Collection<KnownPid> pids, boolean updateModified);
+}
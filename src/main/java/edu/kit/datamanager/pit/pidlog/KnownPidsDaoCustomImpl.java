@@ -0,0 +1,94 @@
+package edu.kit.datamanager.pit.pidlog;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class KnownPidsDaoCustomImpl implements KnownPidsDaoCustom {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Standard SQL, e.g. for H2. Values are given as a single-row select.
+    private static final String MERGE_SOURCE = "MERGE INTO known_pid t USING ("
+            + "SELECT CAST(? AS VARCHAR(255)) AS pid, CAST(? AS TIMESTAMP) AS created, CAST(? AS TIMESTAMP) AS modified"
+            + ") s ON (t.pid = s.pid) ";
+    private static final String MERGE_INSERT = "WHEN NOT MATCHED THEN INSERT (pid, created, modified) "
+            + "VALUES (s.pid, s.created, s.modified)";
+    private static final String MERGE_INSERT_ONLY = MERGE_SOURCE + MERGE_INSERT;
+    private static final String MERGE_UPDATE_MODIFIED = MERGE_SOURCE
+            + "WHEN MATCHED AND t.modified < s.modified THEN UPDATE SET modified = s.modified "
+            + MERGE_INSERT;
+
+    // PostgreSQL
+    private static final String INSERT = "INSERT INTO known_pid (pid, created, modified) VALUES (?, ?, ?) ";
+    private static final String INSERT_ONLY = INSERT + "ON CONFLICT (pid) DO NOTHING";
+    private static final String INSERT_UPDATE_MODIFIED = INSERT
+            + "ON CONFLICT (pid) DO UPDATE SET modified = EXCLUDED.modified "
+            + "WHERE known_pid.modified < EXCLUDED.modified";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean isPostgres;
+
+    @Override
+    public List<KnownPid> findAll(Specification<KnownPid> spec, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<KnownPid> query = builder.createQuery(KnownPid.class);
+        Root<KnownPid> root = query.from(KnownPid.class);
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public void upsertAll(Collection<KnownPid> pids, boolean updateModified) {
+        if (pids.isEmpty()) {
+            return;
+        }
+        String sql;
+        if (isPostgres()) {
+            sql = updateModified ? INSERT_UPDATE_MODIFIED : INSERT_ONLY;
+        } else {
+            sql = updateModified ? MERGE_UPDATE_MODIFIED : MERGE_INSERT_ONLY;
+        }
+        jdbcTemplate.batchUpdate(sql, pids, BATCH_SIZE, (statement, pid) -> {
+            statement.setString(1, pid.getPid());
+            statement.setTimestamp(2, Timestamp.from(pid.getCreated()));
+            statement.setTimestamp(3, Timestamp.from(pid.getModified()));
+        });
+    }
+
+    private boolean isPostgres() {
+        Boolean result = this.isPostgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            this.isPostgres = result;
+        }
+        return result;
+    }
+}
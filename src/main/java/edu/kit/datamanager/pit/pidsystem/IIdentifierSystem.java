@@ -1,8 +1,11 @@
 package edu.kit.datamanager.pit.pidsystem;
 
+import edu.kit.datamanager.pit.common.PreconditionFailedException;
 import edu.kit.datamanager.pit.domain.PIDRecord;
 import edu.kit.datamanager.pit.domain.TypeDefinition;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
 
 /**
  * Main abstraction interface towards the identifier system containing
@@ -64,6 +67,49 @@ public interface IIdentifierSystem {
      */
     public boolean updatePID(PIDRecord record) throws IOException;
 
+    /**
+     * Like `updatePID(PIDRecord)`, but only updates the record if its current
+     * version is one of the expected ones (optimistic concurrency).
+     * 
+     * The default implementation resolves the record before updating it, so a
+     * concurrent update may happen in between. Implementations should override
+     * it to check the version of the record they read for the update anyway.
+     * 
+     * @param record Assumes an existing, valid PID inside this record.
+     * @param expectedContentHashes the content hashes (see
+     * `PIDRecord#getContentHash()`) of the accepted versions, or null to accept
+     * any version.
+     * @return false if there was no existing, valid PID in this record.
+     * @throws PreconditionFailedException if the current version of the record
+     * is not one of the expected ones. The record is not updated then.
+     * @throws IOException
+     */
+    public default boolean updatePID(PIDRecord record, Collection<String> expectedContentHashes) throws IOException {
+        if (expectedContentHashes != null) {
+            PIDRecord current = this.queryAllProperties(record.getPid());
+            if (current == null) {return false;}
+            requireVersion(current, expectedContentHashes);
+        }
+        return this.updatePID(record);
+    }
+
+    /**
+     * Checks the current version of a record before updating it.
+     * 
+     * @param current the record as currently stored.
+     * @param expectedContentHashes the content hashes of the accepted versions,
+     * or null to accept any version.
+     * @throws PreconditionFailedException if the current version is not one of
+     * the expected ones.
+     */
+    public static void requireVersion(PIDRecord current, Collection<String> expectedContentHashes)
+            throws PreconditionFailedException {
+        if (expectedContentHashes != null && !expectedContentHashes.contains(current.getContentHash())) {
+            throw new PreconditionFailedException(
+                    "Record of " + current.getPid() + " does not match the expected version.");
+        }
+    }
+
     /**
      * Queries all properties of a given type available from the given PID. If
      * optional properties are present, they will be returned as well. If there
@@ -80,7 +126,38 @@ public interface IIdentifierSystem {
      * registered, the method returns null.
      * @throws IOException
      */
-    public PIDRecord queryByType(String pid, TypeDefinition typeDefinition) throws IOException;
+    public default PIDRecord queryByType(String pid, TypeDefinition typeDefinition) throws IOException {
+        return this.queryProperties(pid, typeDefinition.getAllProperties());
+    }
+
+    /**
+     * Queries the given properties from the given PID. Properties which are
+     * not present in the record are ignored.
+     *
+     * The default implementation resolves the whole record and filters it.
+     * Implementations should override it if the identifier system can
+     * filter by type itself, to avoid transferring unneeded values.
+     *
+     * @param pid
+     * @param propertyIdentifiers the properties to return.
+     * @return a PID information record containing only the given properties.
+     * The property names will be empty strings. If the pid is not registered,
+     * the method returns null.
+     * @throws IOException
+     */
+    public default PIDRecord queryProperties(String pid, Set<String> propertyIdentifiers) throws IOException {
+        PIDRecord allProps = this.queryAllProperties(pid);
+        if (allProps == null) {return null;}
+        PIDRecord result = new PIDRecord().withPID(pid);
+        for (String propID : allProps.getPropertyIdentifiers()) {
+            if (propertyIdentifiers.contains(propID)) {
+                for (String value : allProps.getPropertyValues(propID)) {
+                    result.addEntry(propID, "", value);
+                }
+            }
+        }
+        return result;
+    }
 
     /**
      * Remove the given PID. Obviously, this method is only for testing
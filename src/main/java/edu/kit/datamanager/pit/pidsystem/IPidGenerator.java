@@ -0,0 +1,19 @@
+package edu.kit.datamanager.pit.pidsystem;
+
+/**
+ * Strategy to generate the suffix of new PIDs.
+ * 
+ * Implementations must be thread-safe and should produce unique values without
+ * asking the identifier system whether a value is already taken. Identifier
+ * systems still reject duplicates when storing a record, so a generator only
+ * needs to make collisions very unlikely.
+ */
+public interface IPidGenerator {
+
+    /**
+     * Generates a new PID suffix.
+     * 
+     * @return a new suffix, never null.
+     */
+    public String generate();
+}
@@ -0,0 +1,248 @@
+package edu.kit.datamanager.pit.pidsystem.impl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import edu.kit.datamanager.pit.domain.CompactPidRecord;
+import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.domain.TypeDefinition;
+import edu.kit.datamanager.pit.pidsystem.IIdentifierSystem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Caches resolved records of another identifier system.
+ * 
+ * Records of unknown PIDs are cached as well ("negative caching"), usually
+ * with a shorter lifetime. Writes through this instance invalidate the
+ * affected PID immediately. Changes done by other instances or clients become
+ * visible after the lifetime of the cached entry expired.
+ * 
+ * Records are cached in their compact form, which is immutable and uses
+ * less memory than `PIDRecord`.
+ * 
+ * Concurrent requests for the same uncached PID share a single lookup. Every
+ * cached entry remembers the generation of its PID when the lookup started.
+ * Writes increase the generation, so entries of lookups which overlapped with
+ * a write are never served.
+ */
+public class CachingIdentifierSystem implements IIdentifierSystem {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingIdentifierSystem.class);
+    private static final int GENERATION_STRIPES = 1024;
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final IIdentifierSystem delegate;
+    private final Cache<String, Generational> records;
+    /** Unknown PIDs, mapped to their generation. */
+    private final Cache<String, Long> unknownPids;
+    /** Generations of PIDs, shared by PIDs of the same stripe. */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * A cached record and the generation of its PID when it was resolved.
+     */
+    private static final class Generational {
+        private final CompactPidRecord record;
+        private final long generation;
+
+        private Generational(CompactPidRecord record, long generation) {
+            this.record = record;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Signals that a PID is unknown to the identifier system, as caches can not
+     * store null.
+     */
+    private static final class UnknownPidException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private UnknownPidException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * @param delegate          the identifier system to cache.
+     * @param lifetime          how long resolved records are cached.
+     * @param notFoundLifetime  how long unknown PIDs are cached.
+     * @param maximumSize       maximum number of cached records (and unknown
+     *                          PIDs).
+     * @param meterRegistry     registry to report cache metrics to.
+     */
+    public CachingIdentifierSystem(
+            IIdentifierSystem delegate,
+            Duration lifetime,
+            Duration notFoundLifetime,
+            long maximumSize,
+            MeterRegistry meterRegistry) {
+        LOG.info("Caching resolved PID records for {}.", lifetime);
+        this.delegate = delegate;
+        this.records = CacheBuilder.newBuilder()
+                .expireAfterWrite(lifetime)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.unknownPids = CacheBuilder.newBuilder()
+                .expireAfterWrite(notFoundLifetime)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, this.records, "pidRecordCache");
+        GuavaCacheMetrics.monitor(meterRegistry, this.unknownPids, "pidNotFoundCache");
+    }
+
+    /**
+     * Returns the cached record, resolving it if required.
+     * 
+     * @param pid the PID to resolve.
+     * @return the cached record, or null if the PID is unknown.
+     * @throws IOException on errors of the identifier system.
+     */
+    private CompactPidRecord getCached(String pid) throws IOException {
+        Generational cached = null;
+        for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+            Long unknownSince = this.unknownPids.getIfPresent(pid);
+            if (unknownSince != null) {
+                if (unknownSince == generationOf(pid)) {
+                    return null;
+                }
+                this.unknownPids.asMap().remove(pid, unknownSince);
+            }
+            try {
+                cached = this.records.get(pid, () -> load(pid));
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UnknownPidException) {
+                    return null;
+                }
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Could not resolve " + pid + ".", e.getCause());
+            } catch (UncheckedExecutionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (cached.generation == generationOf(pid)) {
+                return cached.record;
+            }
+            // the lookup overlapped with a write, so it may be outdated
+            this.records.asMap().remove(pid, cached);
+        }
+        // still changing, return the last result like an uncached lookup would
+        return cached.record;
+    }
+
+    /**
+     * Resolves a record from the identifier system. Unknown PIDs are remembered
+     * and reported with an `UnknownPidException`.
+     */
+    private Generational load(String pid) throws IOException, UnknownPidException {
+        long generation = generationOf(pid);
+        PIDRecord resolved = this.delegate.queryAllProperties(pid);
+        if (resolved == null) {
+            this.unknownPids.put(pid, generation);
+            throw new UnknownPidException();
+        }
+        return new Generational(CompactPidRecord.of(resolved), generation);
+    }
+
+    private long generationOf(String pid) {
+        return this.generations.get(stripeOf(pid));
+    }
+
+    private static int stripeOf(String pid) {
+        return (pid.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private void invalidate(String pid) {
+        if (pid != null) {
+            // entries of lookups which are still running become outdated, too
+            this.generations.incrementAndGet(stripeOf(pid));
+            this.records.invalidate(pid);
+            this.unknownPids.invalidate(pid);
+        }
+    }
+
+    @Override
+    public boolean isIdentifierRegistered(String pid) throws IOException {
+        return getCached(pid) != null;
+    }
+
+    @Override
+    public PIDRecord queryAllProperties(String pid) throws IOException {
+        CompactPidRecord cached = getCached(pid);
+        return cached == null ? null : cached.toPidRecord();
+    }
+
+    @Override
+    public String queryProperty(String pid, TypeDefinition typeDefinition) throws IOException {
+        CompactPidRecord cached = getCached(pid);
+        if (cached == null) {
+            // let the identifier system decide how to handle unknown PIDs
+            return this.delegate.queryProperty(pid, typeDefinition);
+        }
+        return cached.getPropertyValue(typeDefinition.getIdentifier());
+    }
+
+    @Override
+    public String registerPID(PIDRecord record) throws IOException {
+        String pid = this.delegate.registerPID(record);
+        invalidate(pid);
+        return pid;
+    }
+
+    @Override
+    public boolean updatePID(PIDRecord record) throws IOException {
+        invalidate(record.getPid());
+        boolean updated = this.delegate.updatePID(record);
+        invalidate(record.getPid());
+        return updated;
+    }
+
+    @Override
+    public boolean updatePID(PIDRecord record, Collection<String> expectedContentHashes) throws IOException {
+        // the version is checked by the delegate, never against a cached record
+        invalidate(record.getPid());
+        boolean updated = this.delegate.updatePID(record, expectedContentHashes);
+        invalidate(record.getPid());
+        return updated;
+    }
+
+    @Override
+    public PIDRecord queryProperties(String pid, Set<String> propertyIdentifiers) throws IOException {
+        CompactPidRecord allProps = getCached(pid);
+        if (allProps == null) {return null;}
+        PIDRecord result = new PIDRecord().withPID(pid);
+        for (String propID : allProps.getPropertyIdentifiers()) {
+            if (propertyIdentifiers.contains(propID)) {
+                String[] values = allProps.getPropertyValues(propID);
+                for (String value : values) {
+                    result.addEntry(propID, "", value);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deletePID(String pid) throws IOException {
+        try {
+            return this.delegate.deletePID(pid);
+        } finally {
+            invalidate(pid);
+        }
+    }
+}
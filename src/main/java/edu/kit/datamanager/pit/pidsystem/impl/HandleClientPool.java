@@ -0,0 +1,162 @@
+package edu.kit.datamanager.pit.pidsystem.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.handle.api.HSAdapter;
+import net.handle.hdllib.HandleException;
+
+/**
+ * A fixed-size pool of handle clients (`HSAdapter`).
+ *
+ * Every operation borrows its own client, so slow requests do not block others
+ * on a shared client. The pool size bounds the number of concurrent operations
+ * towards the handle servers. Operations failing for transient reasons are
+ * retried with exponential backoff.
+ *
+ * Exposes the metrics `pit.handle.pool.active`, `pit.handle.pool.idle`,
+ * `pit.handle.pool.acquire` (waiting time for a client) and
+ * `pit.handle.operation` (latency of the operation itself).
+ */
+public class HandleClientPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HandleClientPool.class);
+
+    /**
+     * Creates a configured client for the pool.
+     */
+    @FunctionalInterface
+    public interface ClientFactory {
+        HSAdapter create() throws HandleException;
+    }
+
+    /**
+     * An operation on a handle client.
+     */
+    @FunctionalInterface
+    public interface HandleOperation<T> {
+        T execute(HSAdapter client) throws HandleException;
+    }
+
+    private final BlockingQueue<HSAdapter> idle;
+    private final int size;
+    private final Duration acquireTimeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final Timer acquireTimer;
+    private final Timer operationTimer;
+
+    public HandleClientPool(
+            ClientFactory factory,
+            int size,
+            Duration acquireTimeout,
+            int maxRetries,
+            Duration retryBackoff,
+            MeterRegistry meterRegistry) throws HandleException {
+        if (size < 1) {
+            throw new IllegalArgumentException("The handle client pool needs at least one client.");
+        }
+        this.size = size;
+        this.acquireTimeout = acquireTimeout;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoff = retryBackoff;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            this.idle.add(factory.create());
+        }
+        Gauge.builder("pit.handle.pool.active", this, pool -> pool.size - pool.idle.size())
+            .description("Handle clients currently in use")
+            .register(meterRegistry);
+        Gauge.builder("pit.handle.pool.idle", this, pool -> pool.idle.size())
+            .description("Handle clients currently available")
+            .register(meterRegistry);
+        this.acquireTimer = Timer.builder("pit.handle.pool.acquire")
+            .description("Time waited for a free handle client")
+            .register(meterRegistry);
+        this.operationTimer = Timer.builder("pit.handle.operation")
+            .description("Latency of handle operations")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Executes the given operation with a client of the pool.
+     *
+     * @param operation the operation to execute.
+     * @param idempotent if true, the operation is also retried if the server
+     *                   failed. Otherwise, it is only retried if no connection
+     *                   could be established, as it might have been applied.
+     * @return the result of the operation.
+     * @throws HandleException if the operation failed (after retries).
+     * @throws IOException if no client became available in time, or if the
+     *                     thread got interrupted.
+     */
+    public <T> T execute(HandleOperation<T> operation, boolean idempotent) throws HandleException, IOException {
+        int attempt = 0;
+        while (true) {
+            try {
+                return executeOnce(operation);
+            } catch (HandleException e) {
+                if (attempt >= this.maxRetries || !isTransient(e, idempotent)) {
+                    throw e;
+                }
+                long backoff = this.retryBackoff.toMillis() << attempt;
+                attempt++;
+                LOG.warn("Handle operation failed ({}), retry {} of {} in {} ms.", e.getMessage(), attempt, this.maxRetries, backoff);
+                sleep(backoff);
+            }
+        }
+    }
+
+    private <T> T executeOnce(HandleOperation<T> operation) throws HandleException, IOException {
+        HSAdapter client = borrow();
+        Timer.Sample sample = Timer.start();
+        try {
+            return operation.execute(client);
+        } finally {
+            sample.stop(this.operationTimer);
+            this.idle.add(client);
+        }
+    }
+
+    private HSAdapter borrow() throws IOException {
+        long start = System.nanoTime();
+        HSAdapter client;
+        try {
+            client = this.idle.poll(this.acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a handle client.");
+        } finally {
+            this.acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (client == null) {
+            throw new IOException("No handle client available within " + this.acquireTimeout + ".");
+        }
+        return client;
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a retry.");
+        }
+    }
+
+    private static boolean isTransient(HandleException e, boolean idempotent) {
+        int code = e.getCode();
+        return code == HandleException.CANNOT_CONNECT_TO_SERVER
+            || (idempotent && code == HandleException.SERVER_ERROR);
+    }
+}
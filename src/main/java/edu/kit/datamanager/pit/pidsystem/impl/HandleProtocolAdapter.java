@@ -33,6 +33,8 @@ import edu.kit.datamanager.pit.domain.PIDRecord;
 import edu.kit.datamanager.pit.domain.PIDRecordEntry;
 import edu.kit.datamanager.pit.domain.TypeDefinition;
 import edu.kit.datamanager.pit.pidsystem.IIdentifierSystem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import net.handle.api.HSAdapter;
 import net.handle.api.HSAdapterFactory;
 import net.handle.hdllib.Common;
@@ -76,8 +78,10 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
     // Properties specific to this adapter.
     @Autowired
     private HandleProtocolProperties props;
-    // Handle Protocol implementation
-    private HSAdapter client;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+    // Handle Protocol implementation, pooled
+    private HandleClientPool clients;
     // indicates if the adapter can modify and create PIDs or just resolve them.
     private boolean isAdminMode = false;
     // the value that is appended to every new record.
@@ -106,7 +110,7 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
 
         if (!this.isAdminMode) {
             LOG.warn("No credentials found. Starting Handle Adapter with no administrative privileges.");
-            this.client = HSAdapterFactory.newInstance();
+            this.clients = newPool(() -> HSAdapterFactory.newInstance());
 
         } else {
             HandleCredentials credentials = props.getCredentials();
@@ -137,25 +141,42 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
                     }
                 }
             }
-            this.client = HSAdapterFactory.newInstance(
+            final byte[] finalPassphrase = passphrase;
+            this.clients = newPool(() -> HSAdapterFactory.newInstance(
                     credentials.getUserHandle(),
                     credentials.getPrivateKeyIndex(),
                     privateKey,
-                    passphrase // "use null for unencrypted keys"
-            );
+                    finalPassphrase // "use null for unencrypted keys"
+            ));
             HandleIndex indexManager = new HandleIndex();
-            this.adminValue = this.client.createAdminValue(
+            this.adminValue = this.clients.execute(client -> client.createAdminValue(
                     props.getCredentials().getUserHandle(),
                     props.getCredentials().getPrivateKeyIndex(),
-                    indexManager.getHsAdminIndex());
+                    indexManager.getHsAdminIndex()), true);
         }
     }
 
+    private HandleClientPool newPool(HandleClientPool.ClientFactory factory) throws HandleException {
+        HandleClientPool.ClientFactory configured = () -> {
+            HSAdapter client = factory.create();
+            client.setTcpTimeout((int) props.getRequestTimeout().toMillis());
+            client.setUseUDP(props.isUseUdp());
+            return client;
+        };
+        return new HandleClientPool(
+                configured,
+                props.getPoolSize(),
+                props.getAcquireTimeout(),
+                props.getMaxRetries(),
+                props.getRetryBackoff(),
+                this.meterRegistry);
+    }
+
     @Override
     public boolean isIdentifierRegistered(final String pid) throws IOException {
         HandleValue[] record_properties = null;
         try {
-            record_properties = this.client.resolveHandle(pid, null, null);
+            record_properties = this.clients.execute(client -> client.resolveHandle(pid, null, null), true);
         } catch (HandleException e) {
             if (e.getCode() == HandleException.HANDLE_DOES_NOT_EXIST) {
                 return false;
@@ -180,7 +201,7 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
 
     protected Collection<HandleValue> queryAllHandleValues(final String pid) throws IOException {
         try {
-            HandleValue[] values = this.client.resolveHandle(pid, null, null);
+            HandleValue[] values = this.clients.execute(client -> client.resolveHandle(pid, null, null), true);
             return Stream
                     .of(values)
                     .collect(Collectors.toCollection(ArrayList::new));
@@ -201,7 +222,7 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
             // true in every case.
             // The interface likely should be adjusted so we can return all types and do not
             // need to return a String.
-            return this.client.resolveHandle(pid, typeArray, null)[0].getDataAsString();
+            return this.clients.execute(client -> client.resolveHandle(pid, typeArray, null), true)[0].getDataAsString();
         } catch (HandleException e) {
             if (e.getCode() == HandleException.INVALID_VALUE) {
                 return null;
@@ -224,9 +245,13 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
 
         boolean success = false;
         while (!success) {
-            record.setPid(generateRandomPID());
+            String pid = generateRandomPID();
+            record.setPid(pid);
             try {
-                this.client.createHandle(record.getPid(), values);
+                this.clients.execute(client -> {
+                    client.createHandle(pid, values);
+                    return null;
+                }, false);
                 success = true;
             } catch (HandleException e) {
                 if (e.getCode() == HandleException.HANDLE_ALREADY_EXISTS) {
@@ -244,7 +269,12 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
 
     @Override
     public boolean updatePID(PIDRecord record) throws IOException {
-        if (!this.isValidPID(record.getPid())) {
+        return this.updatePID(record, null);
+    }
+
+    @Override
+    public boolean updatePID(PIDRecord record, Collection<String> expectedContentHashes) throws IOException {
+        if (!this.hasValidPrefix(record.getPid())) {
             return false;
         }
         // We need to override the old record as the user has no possibility to update
@@ -257,15 +287,27 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
         // 2) together with the user-given record, merge "valuesToKeep" to a list of
         // values with unique indices.
         // 3) see (by index) which values have to be added, deleted, or updated.
-        // 4) then add, update, delete in this order.
+        // 4) then add, update, delete in this order, skipping unchanged values.
+        // The handle is resolved only once; this snapshot is the base for all steps.
 
+        Collection<HandleValue> snapshot = this.queryAllHandleValues(record.getPid());
+        if (snapshot == null || snapshot.isEmpty()) {
+            return false;
+        }
+        // the expected version is checked against the snapshot the update is based on
+        IIdentifierSystem.requireVersion(
+                this.pidRecordFrom(Streams.stream(snapshot.stream())
+                        .filter(value -> !this.isHandleInternalValue(value))
+                        .collect(Collectors.toList()))
+                        .withPID(record.getPid()),
+                expectedContentHashes);
         // index value
-        Map<Integer, HandleValue> recordOld = this.queryAllHandleValues(record.getPid())
+        Map<Integer, HandleValue> recordOld = snapshot
                 .stream()
                 .collect(Collectors.toMap(v -> v.getIndex(), v -> v));
         // Streams.stream makes a stream failable, i.e. allows filtering with
         // exceptions. A new Java version **might** solve this.
-        List<HandleValue> valuesToKeep = Streams.stream(this.queryAllHandleValues(record.getPid()).stream())
+        List<HandleValue> valuesToKeep = Streams.stream(snapshot.stream())
                 .filter(v -> this.isHandleInternalValue(v))
                 .collect(Collectors.toList());
 
@@ -276,14 +318,27 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
 
         try {
             HandleDiff diff = new HandleDiff(recordOld, recordNew);
-            if (diff.added().length > 0) {
-                this.client.addHandleValues(record.getPid(), diff.added());
+            String pid = record.getPid();
+            HandleValue[] added = diff.added();
+            HandleValue[] updated = diff.updated();
+            HandleValue[] removed = diff.removed();
+            if (added.length > 0) {
+                this.clients.execute(client -> {
+                    client.addHandleValues(pid, added);
+                    return null;
+                }, false);
             }
-            if (diff.updated().length > 0) {
-                this.client.updateHandleValues(record.getPid(), diff.updated());
+            if (updated.length > 0) {
+                this.clients.execute(client -> {
+                    client.updateHandleValues(pid, updated);
+                    return null;
+                }, false);
             }
-            if (diff.removed().length > 0) {
-                this.client.deleteHandleValues(record.getPid(), diff.removed());
+            if (removed.length > 0) {
+                this.clients.execute(client -> {
+                    client.deleteHandleValues(pid, removed);
+                    return null;
+                }, false);
             }
         } catch (HandleException e) {
             if (e.getCode() == HandleException.HANDLE_DOES_NOT_EXIST) {
@@ -291,6 +346,8 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
             } else {
                 throw new IOException(e);
             }
+        } catch (IOException e) {
+            throw e;
         } catch (Exception e) {
             throw new IOException("Implementation error in calculating record difference.", e);
         }
@@ -298,26 +355,40 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
     }
 
     @Override
-    public PIDRecord queryByType(String pid, TypeDefinition typeDefinition) throws IOException {
-        PIDRecord allProps = queryAllProperties(pid);
-        // only return properties listed in the type definition
-        Set<String> typeProps = typeDefinition.getAllProperties();
-        PIDRecord result = new PIDRecord();
-        for (String propID : allProps.getPropertyIdentifiers()) {
-            if (typeProps.contains(propID)) {
-                String[] values = allProps.getPropertyValues(propID);
-                for (String value : values) {
-                    result.addEntry(propID, "", value);
-                }
+    public PIDRecord queryProperties(String pid, Set<String> propertyIdentifiers) throws IOException {
+        if (propertyIdentifiers.isEmpty()) {
+            // an empty filter would return all values
+            return this.isIdentifierRegistered(pid) ? new PIDRecord().withPID(pid) : null;
+        }
+        // let the handle server filter the values by type
+        String[] types = propertyIdentifiers.toArray(new String[0]);
+        HandleValue[] values;
+        try {
+            values = this.clients.execute(client -> client.resolveHandle(pid, types, null), true);
+        } catch (HandleException e) {
+            if (e.getCode() == HandleException.INVALID_VALUE) {
+                // no values of the given types
+                return new PIDRecord().withPID(pid);
+            } else if (e.getCode() == HandleException.HANDLE_DOES_NOT_EXIST) {
+                // servers may also report this if no value matches the filter
+                return this.isIdentifierRegistered(pid) ? new PIDRecord().withPID(pid) : null;
+            } else {
+                throw new IOException(e);
             }
         }
-        return result;
+        Collection<HandleValue> recordProperties = Streams.stream(Stream.of(values))
+                .filter(value -> !this.isHandleInternalValue(value))
+                .collect(Collectors.toList());
+        return this.pidRecordFrom(recordProperties).withPID(pid);
     }
 
     @Override
     public boolean deletePID(final String pid) throws IOException {
         try {
-            this.client.deleteHandle(pid);
+            this.clients.execute(client -> {
+                client.deleteHandle(pid);
+                return null;
+            }, false);
         } catch (HandleException e) {
             if (e.getCode() == HandleException.HANDLE_DOES_NOT_EXIST) {
                 return false;
@@ -423,27 +494,17 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
     }
 
     /**
-     * Returns true if the PID is valid according to the following criteria:
-     * - PID is valid according to isIdentifierRegistered
-     * - If a generator prefix is set, the PID is expedted to have this prefix.
+     * Returns true if the PID may be modified by this adapter: If a generator
+     * prefix is set, the PID is expected to have this prefix.
+     * 
+     * Does not check if the PID is registered, to avoid an extra round trip.
      * 
      * @param pid the identifier / PID to check.
-     * @return true if PID is registered (and if has the generatorPrefix, if it
-     *         exists).
+     * @return true if PID has the generatorPrefix, if it exists.
      */
-    private boolean isValidPID(final String pid) {
+    private boolean hasValidPrefix(final String pid) {
         boolean isAuthMode = this.props.getCredentials() != null;
-        if (isAuthMode && !pid.startsWith(this.props.getCredentials().getHandleIdentifierPrefix())) {
-            return false;
-        }
-        try {
-            if (!this.isIdentifierRegistered(pid)) {
-                return false;
-            }
-        } catch (IOException e) {
-            return false;
-        }
-        return true;
+        return !isAuthMode || pid.startsWith(this.props.getCredentials().getHandleIdentifierPrefix());
     }
 
     private boolean isHandleInternalValue(HandleValue v) throws IOException {
@@ -458,7 +519,8 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
 
     /**
      * Given two Value Maps, it splits the values in those which have been added,
-     * updated or removed.
+     * updated or removed. Values with the same index, type and data in both maps
+     * are unchanged and therefore not part of any list.
      * Using this lists, an update can be applied to the old record, to bring it to
      * the state of the new record.
      */
@@ -475,7 +537,7 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
                 boolean wasRemoved = !recordNew.containsKey(old.getKey());
                 if (wasRemoved) {
                     toRemove.add(old.getValue());
-                } else {
+                } else if (!isUnchanged(old.getValue(), recordNew.get(old.getKey()))) {
                     toUpdate.add(recordNew.get(old.getKey()));
                 }
             }
@@ -511,6 +573,11 @@ public class HandleProtocolAdapter implements IIdentifierSystem {
             }
         }
 
+        private static boolean isUnchanged(HandleValue old, HandleValue updated) {
+            return Arrays.equals(old.getType(), updated.getType())
+                    && Arrays.equals(old.getData(), updated.getData());
+        }
+
         public HandleValue[] added() {
             return this.toAdd.toArray(new HandleValue[] {});
         }
@@ -12,11 +12,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.net.ssl.X509TrustManager;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -28,9 +32,19 @@ import edu.kit.datamanager.pit.domain.PIDRecordEntry;
 import edu.kit.datamanager.pit.domain.TypeDefinition;
 import edu.kit.datamanager.pit.pidsystem.IIdentifierSystem;
 import java.util.Base64;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -84,11 +98,13 @@ public class HandleSystemRESTAdapter implements IIdentifierSystem {
     protected String baseUri;
     protected String authInfo;
     //protected Client client;
-    protected RestTemplate restTemplate = new RestTemplate();
+    protected RestTemplate restTemplate;
+    private CloseableHttpClient httpClient;
 
     protected String generatorPrefix;
 
-    private ObjectMapper objectMapper = new ObjectMapper();
+    // thread-safe, shared by all requests
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @PostConstruct
     public void init() {
@@ -126,7 +142,7 @@ public class HandleSystemRESTAdapter implements IIdentifierSystem {
 //    } else{
 //      this.client = ClientBuilder.newBuilder().build();
 //    }
-        CloseableHttpClient httpClient = HttpClients.custom().setSSLHostnameVerifier(new NoopHostnameVerifier()).build();
+        this.httpClient = createHttpClient();
 
         HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
         requestFactory.setHttpClient(httpClient);
@@ -134,6 +150,50 @@ public class HandleSystemRESTAdapter implements IIdentifierSystem {
         restTemplate = new RestTemplate(requestFactory);
     }
 
+    /**
+     * Creates an HTTP client with a connection pool, so connections to the
+     * handle server are reused instead of being opened for every request.
+     * 
+     * @return the configured client.
+     */
+    private CloseableHttpClient createHttpClient() {
+        // a custom connection manager ignores the client's hostname verifier, so set it here
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", new SSLConnectionSocketFactory(SSLContexts.createDefault(), new NoopHostnameVerifier()))
+            .build();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactories);
+        // all requests go to the same server
+        connectionManager.setMaxTotal(handleProperties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(handleProperties.getMaxConnections());
+        connectionManager.setValidateAfterInactivity(2000);
+
+        long keepAliveMillis = TimeUnit.SECONDS.toMillis(handleProperties.getKeepAliveSeconds());
+        ConnectionKeepAliveStrategy keepAlive = (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        };
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(handleProperties.getConnectTimeoutMillis())
+            .setConnectionRequestTimeout(handleProperties.getConnectTimeoutMillis())
+            .setSocketTimeout(handleProperties.getReadTimeoutMillis())
+            .build();
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy(keepAlive)
+            .setDefaultRequestConfig(requestConfig)
+            .evictExpiredConnections()
+            .evictIdleConnections(handleProperties.getKeepAliveSeconds(), TimeUnit.SECONDS)
+            .build();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (this.httpClient != null) {
+            this.httpClient.close();
+        }
+    }
+
     @Override
     public boolean isIdentifierRegistered(String pid) {
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(baseUri).pathSegment("api", "handles", pid);
@@ -220,20 +280,13 @@ public class HandleSystemRESTAdapter implements IIdentifierSystem {
     }
 
     @Override
-    public PIDRecord queryByType(String pid, TypeDefinition typeDefinition) throws IOException {
-        PIDRecord allProps = queryAllProperties(pid);
-        // only return properties listed in the type def
-        Set<String> typeProps = typeDefinition.getAllProperties();
-        PIDRecord result = new PIDRecord();
-        for (String propID : allProps.getPropertyIdentifiers()) {
-            if (typeProps.contains(propID)) {
-                String[] values = allProps.getPropertyValues(propID);
-                for (String value : values) {
-                    result.addEntry(propID, "", value);
-                }
-            }
+    public PIDRecord queryProperties(String pid, Set<String> propertyIdentifiers) throws IOException {
+        if (propertyIdentifiers.isEmpty()) {
+            // an empty filter would return all values
+            return this.isIdentifierRegistered(pid) ? new PIDRecord().withPID(pid) : null;
         }
-        return result;
+        // let the handle server filter the values by type
+        return resolve(pid, propertyIdentifiers).withPID(pid);
     }
 
     @Override
@@ -249,25 +302,74 @@ public class HandleSystemRESTAdapter implements IIdentifierSystem {
 
     @Override
     public PIDRecord queryAllProperties(String pid) throws IOException {
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(baseUri).pathSegment("api", "handles", pid);
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Authorization", "Basic " + authInfo);
-        HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(headers);
-        ResponseEntity<String> response = restTemplate.exchange(uriBuilder.build().toUri(), HttpMethod.GET, requestEntity, String.class);
+        return resolve(pid, Set.of());
+    }
 
-        if (response.getStatusCodeValue() != 200) {
+    /**
+     * Resolves the record of the given PID.
+     * 
+     * @param pid the PID to resolve.
+     * @param types if not empty, only values of these types are requested.
+     * @return the record, containing values of the given types only.
+     * @throws IOException if the PID could not be resolved.
+     */
+    private PIDRecord resolve(String pid, Collection<String> types) throws IOException {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(baseUri).pathSegment("api", "handles", pid);
+        if (!types.isEmpty()) {
+            uriBuilder = uriBuilder.queryParam("type", types.toArray());
+        }
+        // parse the body while it is received, without buffering it as a string
+        PIDRecord result = restTemplate.execute(
+            uriBuilder.build().toUri(),
+            HttpMethod.GET,
+            request -> request.getHeaders().add("Authorization", "Basic " + authInfo),
+            response -> {
+                if (response.getRawStatusCode() != 200) {
+                    return null;
+                }
+                try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+                    return readRecord(parser);
+                }
+            });
+        if (result == null) {
             throw new PidNotFoundException(pid);
         }
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode root = mapper.readTree(response.getBody());
+        return result;
+    }
+
+    /**
+     * Reads the values of a handle REST API response into a record.
+     * 
+     * Only single values are read into memory at once.
+     * 
+     * @param parser parser positioned before the response object.
+     * @return the record containing all values with a textual format.
+     * @throws IOException on invalid responses.
+     */
+    private PIDRecord readRecord(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Invalid response format: expected an object");
+        }
         PIDRecord result = new PIDRecord();
-        for (JsonNode valueNode : root.get("values")) {
-            if (!(valueNode.get("data").get("format").asText().equals("string") || valueNode.get("data").get("format").asText().equals("base64") || valueNode
-                    .get("data").get("format").asText().equals("hex"))) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (!"values".equals(field)) {
+                parser.skipChildren();
                 continue;
             }
-            // index is ignored..
-            result.addEntry(valueNode.get("type").asText(), "", valueNode.get("data").get("value").asText());
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Invalid response format: values must be an array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode valueNode = parser.readValueAsTree();
+                String format = valueNode.path("data").path("format").asText();
+                if (!(format.equals("string") || format.equals("base64") || format.equals("hex"))) {
+                    continue;
+                }
+                // index is ignored..
+                result.addEntry(valueNode.get("type").asText(), "", valueNode.get("data").get("value").asText());
+            }
         }
         return result;
     }
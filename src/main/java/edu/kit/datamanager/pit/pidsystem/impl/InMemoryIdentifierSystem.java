@@ -1,25 +1,34 @@
 package edu.kit.datamanager.pit.pidsystem.impl;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import edu.kit.datamanager.pit.common.PidNotFoundException;
 import edu.kit.datamanager.pit.configuration.ApplicationProperties;
+import edu.kit.datamanager.pit.domain.CompactPidRecord;
 import edu.kit.datamanager.pit.domain.PIDRecord;
 import edu.kit.datamanager.pit.domain.TypeDefinition;
 import edu.kit.datamanager.pit.pidsystem.IIdentifierSystem;
+import edu.kit.datamanager.pit.pidsystem.IPidGenerator;
+import edu.kit.datamanager.pit.pidsystem.impl.generator.TimeOrderedUuidPidGenerator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 
 /**
  * A simple basis for demonstrations or tests of the service. PIDs will be
- * stored in a HashMap and not stored anywhere else.
+ * stored in a ConcurrentHashMap and not stored anywhere else.
+ * 
+ * It is safe to use concurrently, e.g. as a stand-in for a real PID system in
+ * load tests. Records are stored in their compact form, so callers can not
+ * modify stored records.
  */
 @Component
 @AutoConfigureAfter(value = ApplicationProperties.class)
@@ -29,10 +38,17 @@ import org.springframework.stereotype.Component;
 public class InMemoryIdentifierSystem implements IIdentifierSystem {
 
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryIdentifierSystem.class);
-    private Map<String, PIDRecord> records = new HashMap<>();
+    private final ConcurrentMap<String, CompactPidRecord> records = new ConcurrentHashMap<>();
+    private final IPidGenerator pidGenerator;
 
     public InMemoryIdentifierSystem() {
+        this(new TimeOrderedUuidPidGenerator());
+    }
+
+    @Autowired
+    public InMemoryIdentifierSystem(IPidGenerator pidGenerator) {
         LOG.warn("Using in-memory identifier system. REGISTERED PIDs ARE NOT STORED PERMANENTLY.");
+        this.pidGenerator = pidGenerator;
     }
 
     @Override
@@ -42,50 +58,58 @@ public class InMemoryIdentifierSystem implements IIdentifierSystem {
 
     @Override
     public PIDRecord queryAllProperties(String pid) throws IOException {
-        PIDRecord record = this.records.get(pid);
+        CompactPidRecord record = this.records.get(pid);
         if (record == null) { return null; }
-        return record;
+        return record.toPidRecord();
     }
 
     @Override
     public String queryProperty(String pid, TypeDefinition typeDefinition) throws IOException {
-        PIDRecord record = this.records.get(pid);
+        CompactPidRecord record = this.records.get(pid);
         if (record == null) { throw new PidNotFoundException(pid); }
-        if (!record.hasProperty(typeDefinition.getIdentifier())) { return null; }
         return record.getPropertyValue(typeDefinition.getIdentifier());
     }
     
     @Override
     public String registerPID(PIDRecord record) throws IOException {
-        int counter = 0;
+        CompactPidRecord content = CompactPidRecord.of(record);
+        CompactPidRecord copy;
+        // reserve the PID atomically, so concurrent registrations never collide
         do {
-            int hash = record.getEntries().hashCode() + counter;
-            record.setPid("sandboxed/" + hash);
-            counter++;
-        } while (this.records.containsKey(record.getPid()));
-        this.records.put(record.getPid(), record);
+            copy = content.withPid("sandboxed/" + this.pidGenerator.generate());
+        } while (this.records.putIfAbsent(copy.getPid(), copy) != null);
+        record.setPid(copy.getPid());
         LOG.debug("Registered record with PID: {}", record.getPid());
         return record.getPid();
     }
 
     @Override
     public boolean updatePID(PIDRecord record) throws IOException {
-        if (this.records.containsKey(record.getPid())) {
-            this.records.put(record.getPid(), record);
-            return true;
-        }
-        return false;
+        if (record.getPid() == null) { return false; }
+        return this.records.replace(record.getPid(), CompactPidRecord.of(record)) != null;
+    }
+
+    @Override
+    public boolean updatePID(PIDRecord record, Collection<String> expectedContentHashes) throws IOException {
+        if (record.getPid() == null) { return false; }
+        CompactPidRecord updated = CompactPidRecord.of(record);
+        CompactPidRecord current;
+        // replace only the version which was checked
+        do {
+            current = this.records.get(record.getPid());
+            if (current == null) { return false; }
+            IIdentifierSystem.requireVersion(current.toPidRecord(), expectedContentHashes);
+        } while (!this.records.replace(record.getPid(), current, updated));
+        return true;
     }
 
     @Override
-    public PIDRecord queryByType(String pid, TypeDefinition typeDefinition) throws IOException {
-        PIDRecord allProps = this.queryAllProperties(pid);
+    public PIDRecord queryProperties(String pid, Set<String> propertyIdentifiers) throws IOException {
+        CompactPidRecord allProps = this.records.get(pid);
         if (allProps == null) {return null;}
-        // only return properties listed in the type def
-        Set<String> typeProps = typeDefinition.getAllProperties();
-        PIDRecord result = new PIDRecord();
+        PIDRecord result = new PIDRecord().withPID(pid);
         for (String propID : allProps.getPropertyIdentifiers()) {
-            if (typeProps.contains(propID)) {
+            if (propertyIdentifiers.contains(propID)) {
                 String[] values = allProps.getPropertyValues(propID);
                 for (String value : values) {
                     result.addEntry(propID, "", value);
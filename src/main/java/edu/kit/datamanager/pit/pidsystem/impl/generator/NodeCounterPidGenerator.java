@@ -0,0 +1,41 @@
+package edu.kit.datamanager.pit.pidsystem.impl.generator;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.kit.datamanager.pit.pidsystem.IPidGenerator;
+
+/**
+ * Generates short suffixes of the form `{nodeId}-{counter}`.
+ * 
+ * The counter is base36-encoded and starts at the current time in
+ * milliseconds, multiplied by 1024. PIDs stay unique across restarts of the
+ * node as long as it does not generate more than 1024 PIDs per millisecond on
+ * average. Unique node IDs are required to stay unique across instances.
+ */
+public class NodeCounterPidGenerator implements IPidGenerator {
+
+    private final String nodeId;
+    private final AtomicLong counter;
+
+    /**
+     * @param nodeId the unique ID of this instance. If null or empty, a random
+     *               ID will be chosen.
+     */
+    public NodeCounterPidGenerator(String nodeId) {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = Long.toString(ThreadLocalRandom.current().nextLong(36L * 36 * 36 * 36 * 36 * 36), 36);
+        }
+        this.nodeId = nodeId.trim();
+        this.counter = new AtomicLong(System.currentTimeMillis() << 10);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public String generate() {
+        return nodeId + "-" + Long.toString(counter.getAndIncrement(), 36);
+    }
+}
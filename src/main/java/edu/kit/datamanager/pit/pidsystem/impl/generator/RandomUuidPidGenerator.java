@@ -0,0 +1,16 @@
+package edu.kit.datamanager.pit.pidsystem.impl.generator;
+
+import java.util.UUID;
+
+import edu.kit.datamanager.pit.pidsystem.IPidGenerator;
+
+/**
+ * Generates random (version 4) UUIDs.
+ */
+public class RandomUuidPidGenerator implements IPidGenerator {
+
+    @Override
+    public String generate() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,32 @@
+package edu.kit.datamanager.pit.pidsystem.impl.generator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import edu.kit.datamanager.pit.pidsystem.IPidGenerator;
+
+/**
+ * Generates time-ordered (version 7) UUIDs.
+ * 
+ * The first 48 bits contain the unix timestamp in milliseconds, the remaining
+ * 74 (non-version, non-variant) bits are random. PIDs generated later sort
+ * after earlier ones (with millisecond precision), which keeps database
+ * indexes compact.
+ */
+public class TimeOrderedUuidPidGenerator implements IPidGenerator {
+
+    @Override
+    public String generate() {
+        return next(System.currentTimeMillis()).toString();
+    }
+
+    static UUID next(long unixMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (unixMillis << 16)
+            | 0x7000L
+            | (random.nextLong() & 0x0FFFL);
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL)
+            | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
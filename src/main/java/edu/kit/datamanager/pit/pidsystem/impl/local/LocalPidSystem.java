@@ -1,21 +1,26 @@
 package edu.kit.datamanager.pit.pidsystem.impl.local;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
+import edu.kit.datamanager.pit.common.PidAlreadyExistsException;
 import edu.kit.datamanager.pit.common.PidNotFoundException;
 import edu.kit.datamanager.pit.configuration.ApplicationProperties;
 import edu.kit.datamanager.pit.domain.PIDRecord;
 import edu.kit.datamanager.pit.domain.TypeDefinition;
 import edu.kit.datamanager.pit.pidsystem.IIdentifierSystem;
+import edu.kit.datamanager.pit.pidsystem.IPidGenerator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -44,10 +49,16 @@ import org.springframework.transaction.annotation.Transactional;
 public class LocalPidSystem implements IIdentifierSystem {
 
     private static final Logger LOG = LoggerFactory.getLogger(LocalPidSystem.class);
+
+    /** How often a new PID is generated if the generated one already exists. */
+    private static final int MAX_REGISTRATION_ATTEMPTS = 3;
     
     @Autowired
     PidDatabaseObjectDao db;
 
+    @Autowired
+    IPidGenerator pidGenerator;
+
     public LocalPidSystem() {
         LOG.warn("Using local identifier system to store PIDs. REGISTERED PIDs ARE NOT PERMANENTLY OR PUBLICLY STORED.");
     }
@@ -61,65 +72,91 @@ public class LocalPidSystem implements IIdentifierSystem {
         this.db = db;
     }
 
+    /**
+     * For testing only. Allows to inject the PID generator afterwards.
+     * 
+     * @param pidGenerator the new generator.
+     */
+    public void setPidGenerator(IPidGenerator pidGenerator) {
+        this.pidGenerator = pidGenerator;
+    }
+
     @Override
     public boolean isIdentifierRegistered(String pid) throws IOException {
         return this.db.existsById(pid);
     }
 
+    /**
+     * Loads the record from the database, migrating entries stored by earlier
+     * versions if required.
+     */
+    private Optional<PidDatabaseObject> load(String pid) {
+        Optional<PidDatabaseObject> dbo = this.db.findByPid(pid);
+        dbo.filter(PidDatabaseObject::migrateLegacyEntries).ifPresent(this.db::save);
+        return dbo;
+    }
+
     @Override
     public PIDRecord queryAllProperties(String pid) throws IOException {
-        Optional<PidDatabaseObject> dbo = this.db.findByPid(pid);
+        Optional<PidDatabaseObject> dbo = this.load(pid);
         if (dbo.isEmpty()) { return null; }
         return new PIDRecord(dbo.get());
     }
 
     @Override
     public String queryProperty(String pid, TypeDefinition typeDefinition) throws IOException {
-        Optional<PidDatabaseObject> dbo = this.db.findByPid(pid);
+        Optional<PidDatabaseObject> dbo = this.load(pid);
         if (dbo.isEmpty()) { throw new PidNotFoundException(pid); }
-        PIDRecord rec = new PIDRecord(dbo.get());
-        if (!rec.hasProperty(typeDefinition.getIdentifier())) { return null; }
-        return rec.getPropertyValue(typeDefinition.getIdentifier());
+        List<String> values = dbo.get().getEntries().get(typeDefinition.getIdentifier());
+        if (values == null || values.isEmpty()) { return null; }
+        return values.get(0);
     }
     
+    /**
+     * Registers the record with a newly generated PID.
+     * 
+     * Records are inserted without checking for existence first. The primary
+     * key rejects duplicates, in which case a new PID is generated. Each attempt
+     * runs in its own transaction, so a failed attempt does not affect the next
+     * one.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String registerPID(PIDRecord rec) throws IOException {
-        int counter = 0;
-        do {
-            int hash = rec.getEntries().hashCode() + counter;
-            rec.setPid("sandboxed/" + hash);
-            counter++;
-        } while (this.db.existsById(rec.getPid()));
-        this.db.save(new PidDatabaseObject(rec));
+        for (int attempt = 1; ; attempt++) {
+            rec.setPid("sandboxed/" + this.pidGenerator.generate());
+            try {
+                this.db.saveAndFlush(new PidDatabaseObject(rec).asNew());
+                break;
+            } catch (DataIntegrityViolationException e) {
+                LOG.warn("Generated PID {} already exists (attempt {}).", rec.getPid(), attempt);
+                if (attempt >= MAX_REGISTRATION_ATTEMPTS) {
+                    throw new PidAlreadyExistsException(rec.getPid());
+                }
+            }
+        }
         LOG.debug("Registered record with PID: {}", rec.getPid());
         return rec.getPid();
     }
 
     @Override
     public boolean updatePID(PIDRecord rec) throws IOException {
-        if (this.db.existsById(rec.getPid())) {
-            this.db.save(new PidDatabaseObject(rec));
-            return true;
-        }
-        return false;
+        return this.updatePID(rec, null);
     }
 
     @Override
-    public PIDRecord queryByType(String pid, TypeDefinition typeDefinition) throws IOException {
-        PIDRecord allProps = this.queryAllProperties(pid);
-        if (allProps == null) {return null;}
-        // only return properties listed in the type def
-        Set<String> typeProps = typeDefinition.getAllProperties();
-        PIDRecord result = new PIDRecord();
-        for (String propID : allProps.getPropertyIdentifiers()) {
-            if (typeProps.contains(propID)) {
-                String[] values = allProps.getPropertyValues(propID);
-                for (String value : values) {
-                    result.addEntry(propID, "", value);
-                }
-            }
+    public boolean updatePID(PIDRecord rec, Collection<String> expectedContentHashes) throws IOException {
+        Optional<PidDatabaseObject> existing = this.load(rec.getPid());
+        if (existing.isEmpty()) { return false; }
+        PidDatabaseObject dbo = existing.get();
+        IIdentifierSystem.requireVersion(new PIDRecord(dbo), expectedContentHashes);
+        PidDatabaseObject updated = new PidDatabaseObject(rec);
+        // unchanged records cause no write at all
+        if (!dbo.getEntries().equals(updated.getEntries())) {
+            dbo.setEntries(updated.getEntries());
+            this.db.save(dbo);
         }
-        return result;
+        return true;
     }
 
     @Override
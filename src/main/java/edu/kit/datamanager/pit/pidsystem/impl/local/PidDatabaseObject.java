@@ -5,16 +5,30 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.Lob;
+import javax.persistence.MapKeyColumn;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
 
 import edu.kit.datamanager.pit.domain.PIDRecord;
 import edu.kit.datamanager.pit.domain.PIDRecordEntry;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * A very simple representation of a PID record, without additional information
@@ -22,19 +36,50 @@ import lombok.EqualsAndHashCode;
  * 
  * Similar to `KnownPid`, it can be stored in a database, but additionally
  * stores all keys and values.
+ * 
+ * All entries are stored as a compact JSON object in a single column, so
+ * reading or writing a record is a single row operation. Earlier versions
+ * stored the entries in a separate collection table. Those are still readable
+ * (lazily) and migrated by `LocalPidSystem` when a record is accessed.
  */
 @EqualsAndHashCode
 @Data
 @Entity
-public class PidDatabaseObject {
+public class PidDatabaseObject implements Persistable<String> {
 
     @Id
     @Column(name = "pid")
     private String pid;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @Lob
+    @Column(name = "record_entries")
+    @Convert(converter = PidEntriesConverter.class)
     private Map<String, ArrayList<String>> entries = new HashMap<>();
 
+    /** Entries as stored by earlier versions. Only read for migration. */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(
+        name = "pid_database_object_entries",
+        joinColumns = @JoinColumn(name = "pid_database_object_pid"))
+    @MapKeyColumn(name = "entries_key")
+    @Column(name = "entries")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<String, ArrayList<String>> legacyEntries = new HashMap<>();
+
+    /**
+     * Marks objects which have to be inserted instead of merged, so that an
+     * existing PID violates the primary key instead of being overwritten.
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newObject = false;
+
     /** For hibernate */
     PidDatabaseObject() {}
 
@@ -57,6 +102,46 @@ public class PidDatabaseObject {
             .forEach(this::addEntry);
     }
 
+    /**
+     * Marks this object as new, so it will be inserted when saved.
+     * 
+     * @return this object.
+     */
+    PidDatabaseObject asNew() {
+        this.newObject = true;
+        return this;
+    }
+
+    @Override
+    public String getId() {
+        return this.pid;
+    }
+
+    @Override
+    public boolean isNew() {
+        return this.newObject;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newObject = false;
+    }
+
+    /**
+     * Moves entries stored by earlier versions into the entries column.
+     * 
+     * @return true if entries were migrated and the object has to be saved.
+     */
+    boolean migrateLegacyEntries() {
+        if (!this.entries.isEmpty() || this.legacyEntries.isEmpty()) {
+            return false;
+        }
+        this.entries = new HashMap<>(this.legacyEntries);
+        this.legacyEntries.clear();
+        return true;
+    }
+
     private void addEntry(PIDRecordEntry entry) {
         String key = entry.getKey();
         String value = entry.getValue();
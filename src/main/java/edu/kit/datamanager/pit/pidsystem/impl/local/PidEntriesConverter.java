@@ -0,0 +1,49 @@
+package edu.kit.datamanager.pit.pidsystem.impl.local;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Stores the entries of a `PidDatabaseObject` as a compact JSON object
+ * (`{"key": ["value", ...], ...}`) in a single column.
+ */
+@Converter
+public class PidEntriesConverter implements AttributeConverter<Map<String, ArrayList<String>>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader READER = MAPPER.readerFor(
+        new TypeReference<HashMap<String, ArrayList<String>>>() {});
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, ArrayList<String>> entries) {
+        if (entries == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(entries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize record entries.", e);
+        }
+    }
+
+    @Override
+    public Map<String, ArrayList<String>> convertToEntityAttribute(String column) {
+        if (column == null) {
+            return new HashMap<>();
+        }
+        try {
+            return READER.readValue(column);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not deserialize record entries.", e);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import edu.kit.datamanager.pit.common.PidNotFoundException;
 import edu.kit.datamanager.pit.common.TypeNotFoundException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 
@@ -107,9 +109,9 @@ public class TypingService implements ITypingService {
          * (not names)!
          */
         LOG.trace("Validating {} record properties against type with identifier {}.", pidInfo.getEntries().size(), typeIdentifier);
-        for (String prop : typeDef.getAllProperties()) {
+        for (String prop : typeDef.getMandatoryProperties()) {
             LOG.trace("Checking property {} from type definition.", prop);
-            if (!typeDef.isOptional(prop) && !pidInfo.hasProperty(prop)) {
+            if (!pidInfo.hasProperty(prop)) {
                 LOG.error("Property {} is not optional and was not found in record. Record {} is not matching type {}.", prop, pid, typeIdentifier);
                 //property 'prop' is missing from type info
                 return false;
@@ -235,15 +237,7 @@ public class TypingService implements ITypingService {
         if (typeIdentifiers.isEmpty()) {
             return null;
         }
-        /*
-		 * Query PID record - retrieve all properties, then filter. This is not
-		 * the most economical way of doing this, but proper filtering would
-		 * require a different additional method.
-         */
-        PIDRecord pidInfo = identifierSystem.queryAllProperties(pid);
-        if (includePropertyNames) {
-            enrichPIDInformationRecord(pidInfo);
-        }
+        List<TypeDefinition> typeDefs = new ArrayList<>();
         HashSet<String> propertiesInTypes = new HashSet<>();
         for (String typeIdentifier : typeIdentifiers) {
             TypeDefinition typeDef = null;
@@ -255,10 +249,21 @@ public class TypingService implements ITypingService {
             if (typeDef == null) {
                 return null;
             }
+            typeDefs.add(typeDef);
             propertiesInTypes.addAll(typeDef.getAllProperties());
+        }
+        // Query only the properties of the given types, so the identifier
+        // system may filter them before transferring the record.
+        PIDRecord pidInfo = identifierSystem.queryProperties(pid, propertiesInTypes);
+        if (pidInfo == null) {
+            throw new PidNotFoundException(pid);
+        }
+        if (includePropertyNames) {
+            enrichPIDInformationRecord(pidInfo);
+        }
+        for (TypeDefinition typeDef : typeDefs) {
             pidInfo.checkTypeConformance(typeDef);
         }
-        pidInfo.removePropertiesNotListed(propertiesInTypes);
         return pidInfo;
     }
 
@@ -275,4 +280,9 @@ public class TypingService implements ITypingService {
         return this.identifierSystem.updatePID(record);
     }
 
+    @Override
+    public boolean updatePID(PIDRecord record, Collection<String> expectedContentHashes) throws IOException {
+        return this.identifierSystem.updatePID(record, expectedContentHashes);
+    }
+
 }
@@ -0,0 +1,81 @@
+package edu.kit.datamanager.pit.typeregistry.impl;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import edu.kit.datamanager.pit.configuration.ApplicationProperties;
+import edu.kit.datamanager.pit.domain.TypeDefinition;
+import edu.kit.datamanager.pit.typeregistry.snapshot.TypeSnapshotDao;
+
+/**
+ * Fills the type cache on startup, before the application reports to be ready
+ * for traffic.
+ * 
+ * Loads all types listed in `pit.typeregistry.cache.preload` (usually
+ * profiles) and, if the persistent type cache is enabled, all stored type
+ * snapshots. Sub-types are resolved recursively by the type registry. Types
+ * which can not be loaded are logged, but do not prevent the startup.
+ */
+@Component
+public class TypeCacheWarmup implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TypeCacheWarmup.class);
+
+    @Autowired
+    private LoadingCache<String, TypeDefinition> typeCache;
+    @Autowired
+    private ApplicationProperties applicationProperties;
+    @Autowired
+    private TypeSnapshotDao typeSnapshotDao;
+    @Autowired
+    @Qualifier("TYPE_LOADER_EXECUTOR")
+    private ExecutorService typeLoaderExecutor;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Set<String> identifiers = new LinkedHashSet<>();
+        if (applicationProperties.getPreloadedTypes() != null) {
+            applicationProperties.getPreloadedTypes().stream()
+                    .map(String::trim)
+                    .filter(identifier -> !identifier.isEmpty())
+                    .forEach(identifiers::add);
+        }
+        if (applicationProperties.isPersistentTypeCache()) {
+            identifiers.addAll(typeSnapshotDao.findAllIdentifiers());
+        }
+        if (identifiers.isEmpty()) {
+            return;
+        }
+
+        LOG.info("Warming up type cache with {} type definitions.", identifiers.size());
+        List<CompletableFuture<Void>> loads = identifiers.stream()
+                .map(identifier -> CompletableFuture.runAsync(() -> load(identifier), typeLoaderExecutor))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).join();
+        LOG.info("Type cache warmed up. It now contains {} type definitions.", typeCache.size());
+    }
+
+    private void load(String typeIdentifier) {
+        try {
+            typeCache.get(typeIdentifier);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            LOG.warn("Could not load type definition {} into the cache.", typeIdentifier, e);
+        }
+    }
+}
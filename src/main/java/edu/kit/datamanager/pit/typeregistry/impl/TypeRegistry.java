@@ -1,29 +1,50 @@
 package edu.kit.datamanager.pit.typeregistry.impl;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Iterables;
 import edu.kit.datamanager.pit.configuration.ApplicationProperties;
 import edu.kit.datamanager.pit.domain.ProvenanceInformation;
 import edu.kit.datamanager.pit.domain.TypeDefinition;
 import edu.kit.datamanager.pit.typeregistry.ITypeRegistry;
+import edu.kit.datamanager.pit.typeregistry.snapshot.TypeSnapshot;
+import edu.kit.datamanager.pit.typeregistry.snapshot.TypeSnapshotDao;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -42,12 +63,57 @@ public class TypeRegistry implements ITypeRegistry {
     public LoadingCache<String, TypeDefinition> typeCache;
     @Autowired
     private ApplicationProperties applicationProperties;
+    @Autowired
+    @Qualifier("TYPE_LOADER_EXECUTOR")
+    private ExecutorService typeLoaderExecutor;
+    @Autowired
+    private TypeSnapshotDao typeSnapshotDao;
 
     protected RestTemplate restTemplate = new RestTemplate();
 
+    /**
+     * The sub-types each type currently being constructed waits for, over all
+     * concurrent resolutions. Types waited for more than once are listed more
+     * than once. Guarded by `this`.
+     */
+    private final Map<String, List<String>> waitingFor = new HashMap<>();
+
     @Override
     public TypeDefinition queryTypeDefinition(String typeIdentifier) throws IOException, URISyntaxException {
+        return queryTypeDefinition(typeIdentifier, Collections.emptySet());
+    }
+
+    /**
+     * Like `queryTypeDefinition(String)`, but aware of the types which are
+     * currently resolved and (indirectly) refer to the requested type.
+     *
+     * @param typeIdentifier the identifier of the type.
+     * @param referencedBy the identifiers of the types referring to this type, in
+     *                     resolution order.
+     * @return the type definition.
+     */
+    private TypeDefinition queryTypeDefinition(String typeIdentifier, Set<String> referencedBy)
+            throws IOException, URISyntaxException {
         LOG.trace("Performing queryTypeDefinition({}).", typeIdentifier);
+        String body = applicationProperties.isPersistentTypeCache()
+                ? queryTypeBodyWithSnapshot(typeIdentifier)
+                : queryTypeBody(typeIdentifier);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode rootNode = mapper.readTree(body);
+        LOG.trace("Constructing type definition from response.");
+        Set<String> resolving = new LinkedHashSet<>(referencedBy);
+        resolving.add(typeIdentifier);
+        return constructTypeDefinition(rootNode, Collections.unmodifiableSet(resolving));
+    }
+
+    /**
+     * Fetches the raw type definition from the type registry.
+     *
+     * @param typeIdentifier the identifier of the type.
+     * @return the JSON body of the response.
+     * @throws URISyntaxException if the handle base URI is invalid.
+     */
+    private String queryTypeBody(String typeIdentifier) throws URISyntaxException {
         String[] segments = typeIdentifier.split("/");
         UriComponentsBuilder uriBuilder = UriComponentsBuilder
                 .fromUri(
@@ -58,10 +124,220 @@ public class TypeRegistry implements ITypeRegistry {
         LOG.trace("Querying for type definition at URI {}.", uriBuilder);
         ResponseEntity<String> response = restTemplate.exchange(uriBuilder.build().toUri(), HttpMethod.GET,
                 HttpEntity.EMPTY, String.class);
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode rootNode = mapper.readTree(response.getBody());
-        LOG.trace("Constructing type definition from response.");
-        return constructTypeDefinition(rootNode);
+        return response.getBody();
+    }
+
+    /**
+     * Like `queryTypeBody`, but backed by the stored snapshots. A snapshot
+     * younger than the cache refresh interval (or lifetime) is used without
+     * asking the type registry. Otherwise, the type registry is queried and the
+     * snapshot updated. If the type registry is not reachable, an outdated
+     * snapshot is used as a fallback.
+     *
+     * @param typeIdentifier the identifier of the type.
+     * @return the JSON body of the type definition.
+     * @throws URISyntaxException if the handle base URI is invalid.
+     */
+    private String queryTypeBodyWithSnapshot(String typeIdentifier) throws URISyntaxException {
+        Optional<TypeSnapshot> snapshot = typeSnapshotDao.findById(typeIdentifier);
+        Instant freshAfter = Instant.now().minus(getSnapshotMaxAge());
+        if (snapshot.isPresent() && snapshot.get().getFetched().isAfter(freshAfter)) {
+            LOG.trace("Using stored snapshot of type definition {}.", typeIdentifier);
+            return snapshot.get().getBody();
+        }
+
+        String body;
+        try {
+            body = queryTypeBody(typeIdentifier);
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            if (!snapshot.isPresent()) {
+                throw e;
+            }
+            LOG.warn("Type registry unavailable. Using snapshot of type definition {} from {}.",
+                    typeIdentifier, snapshot.get().getFetched(), e);
+            return snapshot.get().getBody();
+        }
+
+        if (body != null) {
+            try {
+                typeSnapshotDao.save(new TypeSnapshot(typeIdentifier, body, Instant.now()));
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to store snapshot of type definition {}.", typeIdentifier, e);
+            }
+        }
+        return body;
+    }
+
+    private Duration getSnapshotMaxAge() {
+        long refresh = applicationProperties.getRefreshAfterWrite();
+        long minutes = refresh > 0 ? refresh : applicationProperties.getExpireAfterWrite();
+        return Duration.ofMinutes(minutes);
+    }
+
+    /**
+     * Starts loading a sub-type via the type cache, using the type loader
+     * executor. The cache itself makes sure that concurrent requests for the same
+     * identifier (e.g. from other profiles) are coalesced into a single load.
+     *
+     * @param typeIdentifier the identifier of the sub-type.
+     * @param resolving the identifiers of the types currently resolved, which
+     *                  refer to the sub-type.
+     * @param awaited collects the sub-types registered as waited for, which have
+     *                to be released using `stopWaiting` afterwards.
+     * @return the pending sub-type definition. Fails if the sub-type refers to
+     *         itself, directly or via a type another thread is constructing.
+     */
+    private CompletableFuture<TypeDefinition> requestSubType(String typeIdentifier, Set<String> resolving,
+            List<String> awaited) {
+        if (resolving.contains(typeIdentifier)) {
+            return CompletableFuture.failedFuture(new IOException(
+                    "Cyclic type definition: " + String.join(" -> ", resolving) + " -> " + typeIdentifier));
+        }
+        // Another thread may construct the sub-type and wait for this type, e.g.
+        // if it started at the other end of a cycle. Waiting for its load would
+        // then block both threads until the loader timeout.
+        String waiting = Iterables.getLast(resolving);
+        List<String> cycle = startWaiting(waiting, typeIdentifier);
+        if (cycle != null) {
+            return CompletableFuture.failedFuture(new IOException(
+                    "Cyclic type definition: " + waiting + " -> " + String.join(" -> ", cycle)));
+        }
+        awaited.add(typeIdentifier);
+        return CompletableFuture.supplyAsync(() -> {
+            SubTypeLoad load = new SubTypeLoad(typeIdentifier, resolving);
+            try {
+                ForkJoinPool.managedBlock(load);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(ex);
+            }
+            return load.get();
+        }, typeLoaderExecutor);
+    }
+
+    /**
+     * Registers that a type waits for one of its sub-types, unless the sub-type
+     * (indirectly) waits for the type already.
+     *
+     * @param typeIdentifier the identifier of the waiting type.
+     * @param subTypeIdentifier the identifier of the sub-type.
+     * @return null if registered, or the types forming a cycle, starting with
+     *         the sub-type and ending with the waiting type.
+     */
+    private synchronized List<String> startWaiting(String typeIdentifier, String subTypeIdentifier) {
+        List<String> cycle = findWaitingPath(subTypeIdentifier, typeIdentifier, new HashSet<>());
+        if (cycle == null) {
+            waitingFor.computeIfAbsent(typeIdentifier, key -> new ArrayList<>()).add(subTypeIdentifier);
+        }
+        return cycle;
+    }
+
+    /**
+     * Removes a registration made by `startWaiting`.
+     *
+     * @param typeIdentifier the identifier of the waiting type.
+     * @param subTypeIdentifier the identifier of the sub-type.
+     */
+    private synchronized void stopWaiting(String typeIdentifier, String subTypeIdentifier) {
+        List<String> subTypes = waitingFor.get(typeIdentifier);
+        if (subTypes != null) {
+            subTypes.remove(subTypeIdentifier);
+            if (subTypes.isEmpty()) {
+                waitingFor.remove(typeIdentifier);
+            }
+        }
+    }
+
+    /**
+     * Searches the types waited for, starting at `from`, for a path to `to`.
+     *
+     * @return the path including both ends, or null if there is none.
+     */
+    private List<String> findWaitingPath(String from, String to, Set<String> visited) {
+        if (from.equals(to)) {
+            List<String> path = new ArrayList<>();
+            path.add(to);
+            return path;
+        }
+        if (!visited.add(from)) {
+            return null;
+        }
+        for (String next : waitingFor.getOrDefault(from, Collections.emptyList())) {
+            List<String> path = findWaitingPath(next, to, visited);
+            if (path != null) {
+                path.add(0, from);
+                return path;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Waits for a sub-type requested using `requestSubType`, at most for the
+     * configured loader timeout.
+     *
+     * @param typeIdentifier the identifier of the sub-type.
+     * @param request the pending sub-type definition.
+     * @return the sub-type definition.
+     * @throws IOException if the sub-type could not be obtained in time.
+     */
+    private TypeDefinition awaitSubType(String typeIdentifier, CompletableFuture<TypeDefinition> request)
+            throws IOException {
+        long timeout = applicationProperties.getLoaderTimeout();
+        try {
+            return request.get(timeout, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            throw new IOException("Failed to obtain type definition " + typeIdentifier + " via cache.", ex.getCause());
+        } catch (TimeoutException ex) {
+            request.cancel(true);
+            throw new IOException("Timed out after " + timeout + " s waiting for type definition " + typeIdentifier + ".");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for type definition " + typeIdentifier + ".");
+        }
+    }
+
+    /**
+     * Loads a sub-type via the type cache. Waiting for the cache, e.g. because
+     * another thread is loading the same type, is announced to the type loader
+     * executor, so it can add workers meanwhile.
+     */
+    private final class SubTypeLoad implements ForkJoinPool.ManagedBlocker {
+        private final String typeIdentifier;
+        private final Set<String> resolving;
+        private TypeDefinition result;
+        private ExecutionException failure;
+        private boolean done = false;
+
+        private SubTypeLoad(String typeIdentifier, Set<String> resolving) {
+            this.typeIdentifier = typeIdentifier;
+            this.resolving = resolving;
+        }
+
+        @Override
+        public boolean block() {
+            if (!done) {
+                try {
+                    result = typeCache.get(typeIdentifier, () -> queryTypeDefinition(typeIdentifier, resolving));
+                } catch (ExecutionException ex) {
+                    failure = ex;
+                }
+                done = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+
+        private TypeDefinition get() {
+            if (failure != null) {
+                throw new CompletionException(failure.getCause());
+            }
+            return result;
+        }
     }
 
     /**
@@ -69,10 +345,12 @@ public class TypeRegistry implements ITypeRegistry {
      * received from the TypeRegistry.
      *
      * @param rootNode The type definition.
+     * @param resolving The identifiers of the types currently resolved,
+     *                  including this one.
      *
      * @return The TypeDefinition as object.
      */
-    private TypeDefinition constructTypeDefinition(JsonNode rootNode)
+    private TypeDefinition constructTypeDefinition(JsonNode rootNode, Set<String> resolving)
             throws JsonProcessingException, IOException, URISyntaxException {
         // TODO We are doing things too complicated here. Deserialization should be
         // easy.
@@ -83,65 +361,77 @@ public class TypeRegistry implements ITypeRegistry {
         Map<String, TypeDefinition> properties = new HashMap<>();
         LOG.trace("Checking for 'properties' attribute.");
         if (entry.has("properties")) {
-            LOG.trace("'properties' attribute found. Transferring properties to type definition.");
-            for (JsonNode entryKV : entry.get("properties")) {
-                LOG.trace("Checking for 'name' property.");
-                if (!entryKV.has("name")) {
-                    LOG.trace("No 'name' property found. Skipping property {}.", entryKV);
-                    continue;
+            LOG.trace("'properties' attribute found. Requesting all sub-types concurrently.");
+            // Identifiers listed more than once share the same request.
+            Map<String, CompletableFuture<TypeDefinition>> subTypeRequests = new HashMap<>();
+            List<String> awaited = new ArrayList<>();
+            try {
+                for (JsonNode entryKV : entry.get("properties")) {
+                    if (entryKV.has("name") && entryKV.has("identifier")) {
+                        subTypeRequests.computeIfAbsent(
+                                entryKV.get("identifier").asText(),
+                                identifier -> requestSubType(identifier, resolving, awaited));
+                    }
                 }
+                LOG.trace("Transferring properties to type definition.");
+                for (JsonNode entryKV : entry.get("properties")) {
+                    LOG.trace("Checking for 'name' property.");
+                    if (!entryKV.has("name")) {
+                        LOG.trace("No 'name' property found. Skipping property {}.", entryKV);
+                        continue;
+                    }
 
-                String key = entryKV.get("name").asText();
-
-                if (!entryKV.has("identifier")) {
-                    LOG.trace("No 'identifier' property found. Skipping property {}.", entryKV);
-                    continue;
-                }
+                    String key = entryKV.get("name").asText();
 
-                String value = entryKV.get("identifier").asText();
-                LOG.trace("Creating type definition instance for identifier {}.", value);
-                TypeDefinition type_def;
+                    if (!entryKV.has("identifier")) {
+                        LOG.trace("No 'identifier' property found. Skipping property {}.", entryKV);
+                        continue;
+                    }
 
-                try {
-                    type_def = typeCache.get(value);
-                } catch (ExecutionException ex) {
-                    throw new IOException("Failed to obtain type definition via cache.", ex);
-                }
+                    String value = entryKV.get("identifier").asText();
+                    LOG.trace("Creating type definition instance for identifier {}.", value);
+                    // Cached definitions are shared, so the obligations of this profile
+                    // are applied to a copy.
+                    TypeDefinition type_def = awaitSubType(value, subTypeRequests.get(value)).copy();
 
-                LOG.trace("Checking for sub-types in 'representationsAndSemantics' property.");
-                if (entryKV.has("representationsAndSemantics")) {
-                    LOG.trace(
-                            "'representationsAndSemantics' attribute found. Transferring properties to type definition.");
-                    JsonNode semNode = entryKV.get("representationsAndSemantics");
-                    semNode = semNode.get(0);
-                    LOG.trace("Checking for 'expression' property.");
-                    if (semNode.has("expression")) {
-                        LOG.trace("Setting 'expression' value {}.", semNode.get("expression").asText());
-                        type_def.setExpression(semNode.get("expression").asText());
-                    }
+                    LOG.trace("Checking for sub-types in 'representationsAndSemantics' property.");
+                    if (entryKV.has("representationsAndSemantics")) {
+                        LOG.trace(
+                                "'representationsAndSemantics' attribute found. Transferring properties to type definition.");
+                        JsonNode semNode = entryKV.get("representationsAndSemantics");
+                        semNode = semNode.get(0);
+                        LOG.trace("Checking for 'expression' property.");
+                        if (semNode.has("expression")) {
+                            LOG.trace("Setting 'expression' value {}.", semNode.get("expression").asText());
+                            type_def.setExpression(semNode.get("expression").asText());
+                        }
 
-                    LOG.trace("Checking for 'value' property.");
-                    if (semNode.has("value")) {
-                        LOG.trace("Setting 'value' value {}.", semNode.get("value").asText());
-                        type_def.setValue(semNode.get("value").asText());
-                    }
+                        LOG.trace("Checking for 'value' property.");
+                        if (semNode.has("value")) {
+                            LOG.trace("Setting 'value' value {}.", semNode.get("value").asText());
+                            type_def.setValue(semNode.get("value").asText());
+                        }
 
-                    LOG.trace("Checking for 'obligation' property.");
-                    if (semNode.has("obligation")) {
-                        LOG.trace("Setting 'obligation' value {}.", semNode.get("obligation").asText());
-                        String obligation = semNode.get("obligation").asText();
-                        type_def.setOptional("Optional".equalsIgnoreCase(obligation));
-                    }
+                        LOG.trace("Checking for 'obligation' property.");
+                        if (semNode.has("obligation")) {
+                            LOG.trace("Setting 'obligation' value {}.", semNode.get("obligation").asText());
+                            String obligation = semNode.get("obligation").asText();
+                            type_def.setOptional("Optional".equalsIgnoreCase(obligation));
+                        }
 
-                    LOG.trace("Checking for 'repeatable' property.");
-                    if (semNode.has("repeatable")) {
-                        LOG.trace("Setting 'repeatable' value {}.", semNode.get("repeatable").asText());
-                        String repeatable = semNode.get("repeatable").asText();
-                        type_def.setRepeatable(!"No".equalsIgnoreCase(repeatable));
+                        LOG.trace("Checking for 'repeatable' property.");
+                        if (semNode.has("repeatable")) {
+                            LOG.trace("Setting 'repeatable' value {}.", semNode.get("repeatable").asText());
+                            String repeatable = semNode.get("repeatable").asText();
+                            type_def.setRepeatable(!"No".equalsIgnoreCase(repeatable));
+                        }
                     }
+                    LOG.trace("Adding new sub-type with key {}.", key);
+                    properties.put(key, type_def);
                 }
-                LOG.trace("Adding new sub-type with key {}.", key);
-                properties.put(key, type_def);
+            } finally {
+                String waiting = Iterables.getLast(resolving);
+                awaited.forEach(subType -> stopWaiting(waiting, subType));
             }
         }
         String typeUseExpl = null;
@@ -210,6 +500,8 @@ public class TypeRegistry implements ITypeRegistry {
 
         LOG.trace("Finalizing and returning type definition.");
         properties.keySet().forEach(pd -> result.addSubType(properties.get(pd)));
+        // Compile the validator now, so it is ready when the definition is cached.
+        result.getValidator();
         return result;
     }
 }
@@ -0,0 +1,65 @@
+package edu.kit.datamanager.pit.typeregistry.snapshot;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Stores the raw response of the type registry for a type identifier, so type
+ * definitions survive restarts of the service.
+ */
+@Entity
+public class TypeSnapshot implements Serializable {
+    @Id
+    @NotBlank(message = "The identifier of the type.")
+    private String identifier;
+    @Lob
+    @Column(nullable = false)
+    @NotNull(message = "The JSON body received from the type registry.")
+    private String body;
+    @NotNull(message = "The timestamp the body was fetched from the type registry.")
+    private Instant fetched;
+
+    public TypeSnapshot() {}
+
+    public TypeSnapshot(String identifier, String body, Instant fetched) {
+        this.identifier = identifier;
+        this.body = body;
+        this.fetched = fetched;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    public void setIdentifier(String identifier) {
+        this.identifier = identifier;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Instant getFetched() {
+        return fetched;
+    }
+
+    public void setFetched(Instant fetched) {
+        this.fetched = fetched;
+    }
+
+    @Override
+    public String toString() {
+        return "TypeSnapshot [identifier=" + identifier + ", fetched=" + fetched + "]";
+    }
+}
@@ -0,0 +1,18 @@
+package edu.kit.datamanager.pit.typeregistry.snapshot;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Object to access stored type registry responses from the database.
+ * 
+ * Method implementation documentation is skipped due to automated
+ * implementation via spring data, documented in
+ * https://docs.spring.io/spring-data/jpa/docs/current/reference/html/#jpa.query-methods
+ */
+public interface TypeSnapshotDao extends JpaRepository<TypeSnapshot, String> {
+    @Query("SELECT s.identifier FROM TypeSnapshot s")
+    List<String> findAllIdentifiers();
+}
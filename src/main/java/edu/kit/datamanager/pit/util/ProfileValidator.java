@@ -0,0 +1,130 @@
+package edu.kit.datamanager.pit.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.domain.PIDRecordEntry;
+import edu.kit.datamanager.pit.domain.TypeDefinition;
+
+/**
+ * A validator for PID records, compiled once from a profile.
+ * 
+ * It keeps the property identifiers of the profile in a sorted array, next to
+ * the type definition used to validate each property, so validating a record
+ * does not require any intermediate collections. Obligations and repeatable
+ * flags are captured when the validator is created.
+ */
+public class ProfileValidator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProfileValidator.class);
+
+    private final String[] propertyIds;
+    private final TypeDefinition[] propertyTypes;
+    private final boolean[] repeatable;
+    private final String[] mandatoryPropertyIds;
+
+    private ProfileValidator(
+            String[] propertyIds,
+            TypeDefinition[] propertyTypes,
+            boolean[] repeatable,
+            String[] mandatoryPropertyIds) {
+        this.propertyIds = propertyIds;
+        this.propertyTypes = propertyTypes;
+        this.repeatable = repeatable;
+        this.mandatoryPropertyIds = mandatoryPropertyIds;
+    }
+
+    /**
+     * Compiles a validator for the given profile, using its current sub-types.
+     * 
+     * @param profile the profile defining the rules for records.
+     * @return the compiled validator.
+     */
+    public static ProfileValidator of(TypeDefinition profile) {
+        Map<String, TypeDefinition> subTypes = profile.getSubTypes();
+        String[] ids = subTypes.keySet().toArray(new String[0]);
+        Arrays.sort(ids);
+        TypeDefinition[] types = new TypeDefinition[ids.length];
+        boolean[] repeatable = new boolean[ids.length];
+        List<String> mandatory = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            types[i] = subTypes.get(ids[i]);
+            repeatable[i] = types[i].isRepeatable();
+            if (!types[i].isOptional()) {
+                mandatory.add(ids[i]);
+            }
+        }
+        return new ProfileValidator(ids, types, repeatable, mandatory.toArray(new String[0]));
+    }
+
+    /**
+     * Checks if all mandatory properties of the profile are present in the
+     * record.
+     * 
+     * @param record the record to check.
+     * @return true if all mandatory properties are present.
+     */
+    public boolean hasAllMandatoryProperties(PIDRecord record) {
+        for (String mandatory : mandatoryPropertyIds) {
+            if (!record.hasProperty(mandatory)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validates a PID record. See `TypeValidationUtils.isValid` for the rules.
+     * 
+     * @param record the record to validate.
+     * @return true if all validations were successful, false otherwise.
+     */
+    public boolean isValid(PIDRecord record) {
+        if (!hasAllMandatoryProperties(record)) {
+            LOG.warn("PID record does not contain all required elements of type definition.");
+            return false;
+        }
+        for (Map.Entry<String, List<PIDRecordEntry>> property : record.getEntries().entrySet()) {
+            String recordKey = property.getKey();
+            LOG.trace("Checking PID record key {}.", recordKey);
+            int index = Arrays.binarySearch(propertyIds, recordKey);
+            if (index < 0) {
+                LOG.error("No sub-type found for key {}.", recordKey);
+                return false;
+            }
+
+            TypeDefinition type = propertyTypes[index];
+            for (PIDRecordEntry entry : property.getValue()) {
+                String value = entry.getValue();
+                if (value == null) {
+                    LOG.error("'null' record value found for key {}.", recordKey);
+                    return false;
+                }
+
+                if (!type.validate(value)) {
+                    LOG.error("Validation of value {} against type {} failed.", value, type.getIdentifier());
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the profile allows the given property to occur multiple
+     * times. Unknown properties are not repeatable.
+     * 
+     * @param propertyId the property identifier.
+     * @return true if the property is repeatable.
+     */
+    public boolean isRepeatable(String propertyId) {
+        int index = Arrays.binarySearch(propertyIds, propertyId);
+        return index >= 0 && repeatable[index];
+    }
+}
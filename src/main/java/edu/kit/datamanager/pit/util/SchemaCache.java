@@ -0,0 +1,54 @@
+package edu.kit.datamanager.pit.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Process-wide cache of compiled JSON schemas.
+ * 
+ * Many types of a type registry share the same validation schema, and the same
+ * schemas are compiled again whenever a type definition is reloaded. Compiled
+ * schemas are immutable and can therefore be shared. They are keyed by the
+ * SHA-256 hash of the schema text.
+ */
+public class SchemaCache {
+
+    private static final long MAXIMUM_SIZE = 1000;
+
+    private static final Cache<String, Schema> SCHEMAS = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    private SchemaCache() {}
+
+    /**
+     * Returns the compiled schema for the given schema text, compiling it only if
+     * it is not cached yet.
+     * 
+     * @param schema the JSON schema as text.
+     * @return the compiled schema.
+     * @throws org.json.JSONException if the text is not valid JSON.
+     * @throws org.everit.json.schema.SchemaException if the schema is invalid.
+     */
+    public static Schema load(String schema) {
+        String key = Hashing.sha256().hashString(schema, StandardCharsets.UTF_8).toString();
+        try {
+            return SCHEMAS.get(key, () -> SchemaLoader.load(new JSONObject(schema)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Failed to compile JSON schema.", cause);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package edu.kit.datamanager.pit.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import edu.kit.datamanager.pit.domain.PIDRecord;
+
+/**
+ * Result for a single record of a batch operation.
+ * 
+ * The status is the HTTP status code the same operation would have returned
+ * for this record alone.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchRecordResult {
+
+    private final int index;
+    private final int status;
+    private final String pid;
+    private final String message;
+    private final PIDRecord record;
+
+    private BatchRecordResult(int index, int status, String pid, String message, PIDRecord record) {
+        this.index = index;
+        this.status = status;
+        this.pid = pid;
+        this.message = message;
+        this.record = record;
+    }
+
+    /**
+     * @param index  the position of the record in the request.
+     * @param status the status code of the successful operation.
+     * @param record the resulting record, including its PID.
+     * @return a result for a successfully processed record.
+     */
+    public static BatchRecordResult success(int index, int status, PIDRecord record) {
+        return new BatchRecordResult(index, status, record.getPid(), null, record);
+    }
+
+    /**
+     * @param index   the position of the record in the request.
+     * @param status  the status code describing the failure.
+     * @param pid     the PID of the record, if known.
+     * @param message a human readable reason.
+     * @return a result for a record which could not be processed.
+     */
+    public static BatchRecordResult failure(int index, int status, String pid, String message) {
+        return new BatchRecordResult(index, status, pid, message, null);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getPid() {
+        return pid;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public PIDRecord getRecord() {
+        return record;
+    }
+}
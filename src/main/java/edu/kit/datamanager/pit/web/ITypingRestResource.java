@@ -29,6 +29,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
 
@@ -45,6 +46,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
@@ -185,10 +187,63 @@ public interface ITypingRestResource {
             final UriComponentsBuilder uriBuilder
     ) throws IOException;
 
+    /**
+     * Create multiple PIDs using the records provided in the request body, either
+     * as a JSON array or as newline-delimited JSON (one record per line). Each
+     * record is validated and registered independently, as with `createPID`.
+     *
+     * @param body the records, as JSON array or NDJSON.
+     *
+     * @return 201 if all records were registered, 207 if some failed. The body
+     *         contains one result per record, in the order of the request. 413
+     *         if the request contains more records than allowed
+     *         (`pit.batch.maxSize`).
+     *
+     * @throws IOException
+     */
+    @PostMapping(
+        path = "/pids/",
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+        produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(
+        summary = "Create multiple new PID records",
+        description = "Create new PID records for all records in the request body. The records are validated and "
+            + "registered concurrently. Each record gets its own result, containing the status code the creation of "
+            + "this single record would have returned, and the created record or a reason for the failure. "
+            + "The number of records per request is limited by the configuration."
+    )
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+        description = "The records to create, either as JSON array or as newline-delimited JSON.",
+        required = true,
+        content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = PIDRecord.class))),
+            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = PIDRecord.class))
+        }
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All records were created.", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = BatchRecordResult.class)))),
+        @ApiResponse(responseCode = "207", description = "Some records could not be created. See the results for details.", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = BatchRecordResult.class)))),
+        @ApiResponse(responseCode = "400", description = "The body could not be read.", content = @Content(mediaType = "text/plain")),
+        @ApiResponse(responseCode = "413", description = "The request contains too many records.", content = @Content(mediaType = "text/plain")),
+        @ApiResponse(responseCode = "500", description = "Server error. See body for details.", content = @Content(mediaType = "text/plain"))
+    })
+    public ResponseEntity<List<BatchRecordResult>> createPIDs(
+            final InputStream body,
+
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder
+    ) throws IOException;
+
     /**
      * Update the given PIDs record using the information provided in the request
      * body. The record is expected to contain the identifier of the matching
      * profile. Conditions for a valid record are the same as for creation.
+     * 
+     * If an `If-Match` header is given, the record is only updated if its
+     * current ETag matches (optimistic concurrency). The identifier system
+     * checks this against the version of the record it updates.
      *
      * @param rec The PID record.
      *
@@ -222,6 +277,7 @@ public interface ITypingRestResource {
                 @Content(mediaType = SimplePidRecord.CONTENT_TYPE, schema = @Schema(implementation = SimplePidRecord.class))
             }),
         @ApiResponse(responseCode = "409", description = "Validation failed (conflict). See body for details.", content = @Content(mediaType = "text/plain")),
+        @ApiResponse(responseCode = "412", description = "The record does not match the ETag given in If-Match.", content = @Content(mediaType = "text/plain")),
         @ApiResponse(responseCode = "500", description = "Server error. See body for details.", content = @Content(mediaType = "text/plain"))
     })
     public ResponseEntity<PIDRecord> updatePID(
@@ -259,6 +315,10 @@ public interface ITypingRestResource {
 
     /**
      * Get the record of the given PID.
+     * 
+     * The response contains an ETag derived from the record content and the
+     * returned format, as the formats differ. If it matches the `If-None-Match`
+     * header, only 304 is returned.
      *
      * @return the record.
      *
@@ -278,6 +338,7 @@ public interface ITypingRestResource {
                 @Content(mediaType = SimplePidRecord.CONTENT_TYPE, schema = @Schema(implementation = SimplePidRecord.class))
             }
         ),
+        @ApiResponse(responseCode = "304", description = "Not modified. The record matches the ETag given in If-None-Match."),
         @ApiResponse(responseCode = "404", description = "Not found", content = @Content(mediaType = "text/plain"))
     })
     public ResponseEntity<PIDRecord> getRecord (
@@ -286,6 +347,54 @@ public interface ITypingRestResource {
             final UriComponentsBuilder uriBuilder
     ) throws IOException;
 
+    /**
+     * Get the records of multiple PIDs in one request. Duplicate PIDs are
+     * resolved only once. The results are streamed in the order of the request,
+     * as a JSON array or as newline-delimited JSON, depending on the Accept
+     * header.
+     *
+     * @param pids   the PIDs to resolve.
+     * @param simple if true, records are returned in the simple format.
+     *
+     * @return a stream of results, one per distinct PID. 413 if the request
+     *         contains more PIDs than allowed (`pit.batch.maxSize`).
+     *
+     * @throws IOException
+     */
+    @PostMapping(
+        path = "/pids/resolve",
+        consumes = {MediaType.APPLICATION_JSON_VALUE},
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    @Operation(
+        summary = "Get the records of multiple PIDs.",
+        description = "Resolves all PIDs given in the request body concurrently. Every distinct PID gets one result, "
+            + "containing the PID, the status code resolving this PID alone would have returned, and either the "
+            + "record or a reason why it could not be resolved (e.g. status 404 if the PID was not found). "
+            + "Results are streamed as JSON array or, if accepted, as newline-delimited JSON. "
+            + "The number of PIDs per request is limited by the configuration."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "The results for all PIDs.", content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE),
+            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+        }),
+        @ApiResponse(responseCode = "413", description = "The request contains too many PIDs.", content = @Content(mediaType = "text/plain")),
+        @ApiResponse(responseCode = "500", description = "Server error. See body for details.", content = @Content(mediaType = "text/plain"))
+    })
+    public ResponseEntity<StreamingResponseBody> resolvePIDs(
+            @RequestBody
+            final List<String> pids,
+
+            @Parameter(name = "simple", description = "Return the records in the simple format.", required = false)
+            @RequestParam(name = "simple", required = false, defaultValue = "false")
+            final boolean simple,
+
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder
+    ) throws IOException;
+
     /**
      * Requests a PID from the local store. If this PID is known, it will be
      * returned together with the timestamps of creation and modification executed
@@ -450,6 +559,128 @@ public interface ITypingRestResource {
             UriComponentsBuilder uriBuilder
     ) throws IOException;
 
+    /**
+     * Like findAll, but paginated with a cursor instead of page numbers. The
+     * link to the next page is given in the `Link` header (relation "next").
+     * If there is no such header, the last page has been reached.
+     * 
+     * In contrast to page numbers, late pages are as fast as early ones, and
+     * PIDs added meanwhile do not shift the pages.
+     * 
+     * @param createdAfter   defines the earliest date for the creation timestamp.
+     * @param createdBefore  defines the latest date for the creation timestamp.
+     * @param modifiedAfter  defines the earliest date for the modification
+     *                       timestamp.
+     * @param modifiedBefore defines the latest date for the modification timestamp.
+     * @param cursor         the cursor of the page, empty for the first page.
+     * @param order          the timestamp to order by, "created" or "modified".
+     * @param size           the maximum number of PIDs per page.
+     * @return the PIDs of this page.
+     */
+    @Operation(
+        summary = "Returns all known PIDs, paginated with a cursor.",
+        description = "Like the paginated variant, but uses a cursor instead of page numbers. Start with an "
+            + "empty cursor. If there are more results, the Link header (relation \"next\") contains the "
+            + "URL of the next page.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "If the request was valid. May return an empty list.",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = KnownPid.class)))
+            ),
+            @ApiResponse(responseCode = "400", description = "If the cursor or order is invalid.", content = @Content(mediaType = "text/plain"))
+        }
+    )
+    @GetMapping(path = "/known-pid", params = "cursor")
+    public ResponseEntity<List<KnownPid>> findAllByCursor(
+            @Parameter(name = "created_after", description = "The UTC time of the earliest creation timestamp of a returned PID.", required = false)
+            @RequestParam(name = "created_after", required = false)
+            Instant createdAfter,
+
+            @Parameter(name = "created_before", description = "The UTC time of the latest creation timestamp of a returned PID.", required = false)
+            @RequestParam(name = "created_before", required = false)
+            Instant createdBefore,
+
+            @Parameter(name = "modified_after", description = "The UTC time of the earliest modification timestamp of a returned PID.", required = false)
+            @RequestParam(name = "modified_after", required = false)
+            Instant modifiedAfter,
+            
+            @Parameter(name = "modified_before", description = "The UTC time of the latest modification timestamp of a returned PID.", required = false)
+            @RequestParam(name = "modified_before", required = false)
+            Instant modifiedBefore,
+
+            @Parameter(name = "cursor", description = "The cursor of the page, as given by the previous page. Empty for the first page.", required = true)
+            @RequestParam(name = "cursor", required = false, defaultValue = "")
+            String cursor,
+
+            @Parameter(name = "order", description = "Order by the \"created\" or \"modified\" timestamp. Only used for the first page.", required = false)
+            @RequestParam(name = "order", required = false, defaultValue = "created")
+            String order,
+
+            @Parameter(name = "size", description = "The maximum number of PIDs per page.", required = false)
+            @RequestParam(name = "size", required = false, defaultValue = "20")
+            int size,
+
+            WebRequest request,
+            
+            HttpServletResponse response,
+            
+            UriComponentsBuilder uriBuilder
+    ) throws IOException;
+
+    /**
+     * Streams all known PIDs matching the given constraints, as
+     * newline-delimited JSON or CSV, depending on the Accept header.
+     * 
+     * @param createdAfter   defines the earliest date for the creation timestamp.
+     * @param createdBefore  defines the latest date for the creation timestamp.
+     * @param modifiedAfter  defines the earliest date for the modification
+     *                       timestamp.
+     * @param modifiedBefore defines the latest date for the modification timestamp.
+     * @param order          the timestamp to order by, "created" or "modified".
+     * @return all PIDs matching the given constraints.
+     */
+    @Operation(
+        summary = "Exports all known PIDs as newline-delimited JSON or CSV.",
+        description = "Streams all known PIDs matching the given filtering criteria, without pagination. "
+            + "Use the Accept header to choose between newline-delimited JSON and CSV.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "All matching PIDs. May be empty.", content = {
+                @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                @Content(mediaType = "text/csv")
+            }),
+            @ApiResponse(responseCode = "400", description = "If the order is invalid.", content = @Content(mediaType = "text/plain"))
+        }
+    )
+    @GetMapping(path = "/known-pid", produces = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @Parameter(name = "created_after", description = "The UTC time of the earliest creation timestamp of a returned PID.", required = false)
+            @RequestParam(name = "created_after", required = false)
+            Instant createdAfter,
+
+            @Parameter(name = "created_before", description = "The UTC time of the latest creation timestamp of a returned PID.", required = false)
+            @RequestParam(name = "created_before", required = false)
+            Instant createdBefore,
+
+            @Parameter(name = "modified_after", description = "The UTC time of the earliest modification timestamp of a returned PID.", required = false)
+            @RequestParam(name = "modified_after", required = false)
+            Instant modifiedAfter,
+            
+            @Parameter(name = "modified_before", description = "The UTC time of the latest modification timestamp of a returned PID.", required = false)
+            @RequestParam(name = "modified_before", required = false)
+            Instant modifiedBefore,
+
+            @Parameter(name = "order", description = "Order by the \"created\" or \"modified\" timestamp.", required = false)
+            @RequestParam(name = "order", required = false, defaultValue = "created")
+            String order,
+
+            WebRequest request,
+            
+            HttpServletResponse response,
+            
+            UriComponentsBuilder uriBuilder
+    ) throws IOException;
+
     /**
      * Simple ping method for testing (check whether the API is running etc.).
      * Not part of the official interface description.
@@ -1,12 +1,9 @@
 package edu.kit.datamanager.pit.web.converter;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map.Entry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,8 +14,15 @@ import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import edu.kit.datamanager.pit.Application;
 import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.domain.PIDRecordEntry;
 import edu.kit.datamanager.pit.domain.SimplePidRecord;
 
 /**
@@ -42,13 +46,21 @@ import edu.kit.datamanager.pit.domain.SimplePidRecord;
  * For accepting formats, it is the same. With the accept header, a client may
  * control which format it would like to receive. If it prefers to receive the
  * simple format and sets the header accordingly, instead of directly
- * serializing the PIDRecord, this class will be used. It first converts the
- * record into the simple class representation before serializing into JSON.
+ * serializing the PIDRecord, this class will be used.
+ * 
+ * The JSON is read and written in a streaming fashion, directly from and to
+ * the PIDRecord, without an intermediate SimplePidRecord or String.
  */
 public class SimplePidRecordConverter implements HttpMessageConverter<PIDRecord> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SimplePidRecordConverter.class);
 
+    private static final ObjectMapper MAPPER = Application.jsonObjectMapper();
+    private static final String FIELD_PID = "pid";
+    private static final String FIELD_RECORD = "record";
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_VALUE = "value";
+
     private boolean isValidMediaType(MediaType arg1) {
         return arg1.toString().contains(SimplePidRecord.CONTENT_TYPE_PURE);
     }
@@ -79,9 +91,61 @@ public class SimplePidRecordConverter implements HttpMessageConverter<PIDRecord>
     public PIDRecord read(Class<? extends PIDRecord> arg0, HttpInputMessage arg1)
             throws IOException, HttpMessageNotReadableException {
         LOGGER.trace("Read simple message from client and convert to PIDRecord.");
-        try (InputStreamReader reader = new InputStreamReader(arg1.getBody(), StandardCharsets.UTF_8)) {
-            String data = new BufferedReader(reader).lines().collect(Collectors.joining("\n"));
-            return new PIDRecord(Application.jsonObjectMapper().readValue(data, SimplePidRecord.class));
+        try (JsonParser parser = MAPPER.getFactory().createParser(arg1.getBody())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new HttpMessageNotReadableException("Expected a JSON object in simple record format.", arg1);
+            }
+            PIDRecord record = new PIDRecord();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (FIELD_RECORD.equals(field)) {
+                    readPairs(parser, record, arg1);
+                } else {
+                    // like the SimplePidRecord conversion, ignore the PID and unknown fields
+                    parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new HttpMessageNotReadableException("Expected a field or the end of the simple record.", arg1);
+            }
+            if (parser.nextToken() != null) {
+                throw new HttpMessageNotReadableException("Unexpected content after the simple record.", arg1);
+            }
+            return record;
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Could not read simple record: " + e.getOriginalMessage(), e, arg1);
+        }
+    }
+
+    private static void readPairs(JsonParser parser, PIDRecord record, HttpInputMessage message) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new HttpMessageNotReadableException("Expected an array of key-value pairs.", message);
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String key = null;
+            String value = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (FIELD_KEY.equals(field)) {
+                    key = parser.getValueAsString();
+                } else if (FIELD_VALUE.equals(field)) {
+                    value = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (key == null || key.isEmpty()) {
+                throw new HttpMessageNotReadableException("Every key-value pair requires a key.", message);
+            }
+            record.addEntry(key, "", value);
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new HttpMessageNotReadableException("Expected only key-value pair objects in the record array.", message);
         }
     }
 
@@ -89,8 +153,32 @@ public class SimplePidRecordConverter implements HttpMessageConverter<PIDRecord>
     public void write(PIDRecord arg0, MediaType arg1, HttpOutputMessage arg2)
             throws IOException, HttpMessageNotWritableException {
         LOGGER.trace("Write PIDRecord to simple format for client.");
-        SimplePidRecord sim = new SimplePidRecord(arg0);
-        byte[] simSerialized = Application.jsonObjectMapper().writeValueAsBytes(sim);
-        arg2.getBody().write(simSerialized);
+        // Same output as serializing SimplePidRecord, which omits empty values.
+        JsonGenerator generator = MAPPER.getFactory().createGenerator(arg2.getBody());
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        if (arg0.getPid() != null && !arg0.getPid().isEmpty()) {
+            generator.writeStringField(FIELD_PID, arg0.getPid());
+        }
+        if (!arg0.getEntries().isEmpty()) {
+            generator.writeArrayFieldStart(FIELD_RECORD);
+            for (Entry<String, List<PIDRecordEntry>> entry : arg0.getEntries().entrySet()) {
+                for (PIDRecordEntry value : entry.getValue()) {
+                    generator.writeStartObject();
+                    writeNonEmpty(generator, FIELD_KEY, entry.getKey());
+                    writeNonEmpty(generator, FIELD_VALUE, value.getValue());
+                    generator.writeEndObject();
+                }
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private static void writeNonEmpty(JsonGenerator generator, String field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            generator.writeStringField(field, value);
+        }
     }
 }
@@ -1,11 +1,33 @@
 package edu.kit.datamanager.pit.web.impl;
 
 import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.pit.Application;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import edu.kit.datamanager.pit.common.DataTypeException;
 import edu.kit.datamanager.pit.common.InconsistentRecordsException;
@@ -18,9 +40,13 @@ import edu.kit.datamanager.pit.domain.PIDRecord;
 import edu.kit.datamanager.pit.domain.SimplePidRecord;
 import edu.kit.datamanager.pit.domain.TypeDefinition;
 import edu.kit.datamanager.pit.pidlog.KnownPid;
+import edu.kit.datamanager.pit.pidlog.KnownPidCursor;
+import edu.kit.datamanager.pit.pidlog.KnownPidSpecifications;
+import edu.kit.datamanager.pit.pidlog.KnownPidWriter;
 import edu.kit.datamanager.pit.pidlog.KnownPidsDao;
 import edu.kit.datamanager.pit.pitservice.ITypingService;
 import edu.kit.datamanager.pit.util.TypeValidationUtils;
+import edu.kit.datamanager.pit.web.BatchRecordResult;
 import edu.kit.datamanager.pit.web.ITypingRestResource;
 import edu.kit.datamanager.pit.web.TabulatorPaginationFormat;
 import edu.kit.datamanager.service.IMessagingService;
@@ -36,15 +62,25 @@ import org.apache.http.entity.ContentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
 /**
@@ -319,6 +355,12 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(TypingRESTResourceImpl.class);
 
+    private static final ObjectMapper MAPPER = Application.jsonObjectMapper();
+    private static final ObjectReader RECORD_READER = MAPPER.readerFor(PIDRecord.class);
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+
     @Autowired
     private ApplicationProperties applicationProps;
 
@@ -331,6 +373,17 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
     @Autowired
     private KnownPidsDao localPidStorage;
 
+    @Autowired
+    private KnownPidWriter knownPidWriter;
+
+    @Autowired
+    @Qualifier("BATCH_EXECUTOR")
+    private ExecutorService batchExecutor;
+
+    @Autowired
+    @Qualifier("RESOLVE_EXECUTOR")
+    private ExecutorService resolveExecutor;
+
     public TypingRESTResourceImpl() {
         super();
     }
@@ -406,36 +459,132 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
             final HttpServletResponse response,
             final UriComponentsBuilder uriBuilder) throws IOException {
         LOG.info("Creating PID");
+        validateForCreation(record);
+        // register
+        String pid = this.typingService.registerPID(record);
+        // store result locally
+        if (applicationProps.getStorageStrategy().storesModified()) {
+            knownPidWriter.store(pid, true);
+        }
+        // distribute to other services
+        record.setPid(pid);
+        notifyCreation(pid);
+        return ResponseEntity.status(HttpStatus.CREATED.value()).body(record);
+    }
+
+    @Override
+    public ResponseEntity<List<BatchRecordResult>> createPIDs(
+            InputStream body,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder) throws IOException {
+        List<PIDRecord> records = readRecords(body);
+        LOG.info("Creating {} PIDs", records.size());
+        // validate and register concurrently, bounded by the batch executor
+        List<CompletableFuture<BatchRecordResult>> pending = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            final int index = i;
+            final PIDRecord record = records.get(i);
+            pending.add(CompletableFuture.supplyAsync(() -> createInBatch(index, record), batchExecutor));
+        }
+        List<BatchRecordResult> results = pending.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+
+        List<String> created = results.stream()
+                .filter(result -> result.getRecord() != null)
+                .map(BatchRecordResult::getPid)
+                .collect(Collectors.toList());
+        // store results locally, as one batch
+        if (applicationProps.getStorageStrategy().storesModified() && !created.isEmpty()) {
+            knownPidWriter.store(created, true);
+        }
+        // distribute to other services
+        created.forEach(this::notifyCreation);
+
+        HttpStatus status = created.size() == results.size() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status.value()).body(results);
+    }
+
+    /**
+     * Validates and registers a single record of a batch. Failures are
+     * reported as results instead of exceptions.
+     * 
+     * @param index  the position of the record in the batch.
+     * @param record the record to register.
+     * @return the result for this record.
+     */
+    private BatchRecordResult createInBatch(int index, PIDRecord record) {
+        try {
+            validateForCreation(record);
+            String pid = this.typingService.registerPID(record);
+            record.setPid(pid);
+            return BatchRecordResult.success(index, HttpStatus.CREATED.value(), record);
+        } catch (Exception e) {
+            LOG.warn("Could not create PID for record {} of batch.", index, e);
+            return BatchRecordResult.failure(index, statusOf(e), record.getPid(), e.getMessage());
+        }
+    }
+
+    /**
+     * Determines the status code of an exception, as declared by its
+     * `ResponseStatus` annotation.
+     * 
+     * @param e the exception.
+     * @return the status code, 500 if none is declared.
+     */
+    private static int statusOf(Exception e) {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        return status != null ? status.code().value() : HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+
+    /**
+     * Reads records from a JSON array or from newline-delimited JSON. Reading
+     * stops as soon as the body turns out to exceed the maximum batch size.
+     * 
+     * @param body the request body.
+     * @return the records in the order of the body.
+     * @throws ResponseStatusException with 413 if the body contains more
+     *                                 records than allowed.
+     */
+    private List<PIDRecord> readRecords(InputStream body) {
+        int maxSize = applicationProps.getBatchMaxSize();
+        List<PIDRecord> records = new ArrayList<>();
+        try (MappingIterator<PIDRecord> iterator = RECORD_READER.readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (records.size() >= maxSize) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "A batch may contain at most " + maxSize + " records.");
+                }
+                records.add(iterator.nextValue());
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Could not read records: " + e.getMessage(), e);
+        }
+        return records;
+    }
+
+    /**
+     * Validates a record before its creation.
+     * 
+     * @param record the record to validate.
+     * @throws RecordValidationException if the record is not valid.
+     * @throws IOException               on errors while resolving its profiles.
+     */
+    private void validateForCreation(PIDRecord record) throws IOException {
         boolean valid = false;
         try {
             valid = this.executeValidationStrategy(record);
         } catch (DataTypeException e) {
             throw new RecordValidationException("(no PID has been registered)", e.getMessage());
         }
+        if (valid) {
+            return;
+        }
         String profileKey = applicationProps.getProfileKey();
         boolean missingProfile = !record.hasProperty(profileKey)
                 || record.getPropertyValues(profileKey).length < 1;
-        if (valid) {
-            // register
-            String pid = this.typingService.registerPID(record);
-            // store result locally
-            if (applicationProps.getStorageStrategy().storesModified()) {
-                storeLocally(pid, true);
-            }
-            // distribute to other services
-            record.setPid(pid);
-            PidRecordMessage message = PidRecordMessage.creation(
-                    pid,
-                    "", // TODO parameter is depricated and will be removed soon.
-                    AuthenticationHelper.getPrincipal(),
-                    ControllerUtils.getLocalHostname());
-            try {
-                this.messagingService.send(message);
-            } catch (Exception e) {
-                LOG.error("Could not notify messaging service about the following message: {}", message.toString());
-            }
-            return ResponseEntity.status(HttpStatus.CREATED.value()).body(record);
-        } else if (missingProfile) {
+        if (missingProfile) {
             // validation failed and profile is missing (this must therefore be the reason)
             throw new RecordValidationException("(no PID registered yet)",
                     "No profiles are specified in this record. Profile Key is " + profileKey);
@@ -445,6 +594,24 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
         }
     }
 
+    /**
+     * Notifies other services about a new PID.
+     * 
+     * @param pid the created PID.
+     */
+    private void notifyCreation(String pid) {
+        PidRecordMessage message = PidRecordMessage.creation(
+                pid,
+                "", // TODO parameter is depricated and will be removed soon.
+                AuthenticationHelper.getPrincipal(),
+                ControllerUtils.getLocalHostname());
+        try {
+            this.messagingService.send(message);
+        } catch (Exception e) {
+            LOG.error("Could not notify messaging service about the following message: {}", message.toString());
+        }
+    }
+
     @Override
     public ResponseEntity<PIDRecord> updatePID(
             PIDRecord record,
@@ -458,6 +625,13 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
             throw new InconsistentRecordsException(
                     "PID in record was given, but it was not the same as the PID in the URL.");
         }
+        // optimistic concurrency: only update the version the client knows. The
+        // identifier system checks it against the record it reads for the update.
+        String ifMatch = request.getHeader(HttpHeaders.IF_MATCH);
+        Set<String> expectedVersions = ifMatch != null ? contentHashesOf(ifMatch) : null;
+
+        // Check existence (cached) first, so unknown PIDs are reported as such,
+        // without resolving the types of the record for validation.
         if (!this.typingService.isIdentifierRegistered(pid)) {
             throw new PidNotFoundException(pid);
         }
@@ -476,10 +650,10 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
         }
 
         // update and send message
-        if (this.typingService.updatePID(record)) {
+        if (this.typingService.updatePID(record, expectedVersions)) {
             // store pid locally
             if (applicationProps.getStorageStrategy().storesModified()) {
-                storeLocally(record.getPid(), true);
+                knownPidWriter.store(record.getPid(), true);
             }
             // distribute pid to other services
             PidRecordMessage message = PidRecordMessage.update(
@@ -488,12 +662,51 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
                     AuthenticationHelper.getPrincipal(),
                     ControllerUtils.getLocalHostname());
             this.messagingService.send(message);
-            return ResponseEntity.ok().body(record);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            return ResponseEntity.ok().eTag(etagOf(record, acceptsSimpleFormat(request))).body(record);
         } else {
             throw new PidNotFoundException(pid);
         }
     }
 
+    /**
+     * @param record the record.
+     * @param simple true for the simple format, false for the default JSON
+     *               format.
+     * @return the (strong) ETag of the given representation of the record,
+     *         derived from its content.
+     */
+    private static String etagOf(PIDRecord record, boolean simple) {
+        return "\"" + record.getContentHash() + (simple ? "-simple" : "") + "\"";
+    }
+
+    /**
+     * Extracts the record versions from the value of an `If-Match` header.
+     * 
+     * @param ifMatch the header value, a list of ETags or "*".
+     * @return the content hashes of the given ETags (see `etagOf`), or null if
+     *         the header matches any version.
+     */
+    private static Set<String> contentHashesOf(String ifMatch) {
+        Set<String> hashes = new HashSet<>();
+        for (String candidate : ifMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return null;
+            }
+            // weak ETags ("W/...") never match, as If-Match requires strong comparison
+            if (candidate.length() >= 2 && candidate.startsWith("\"") && candidate.endsWith("\"")) {
+                String hash = candidate.substring(1, candidate.length() - 1);
+                // the ETags of all representations identify the same version
+                if (hash.endsWith("-simple")) {
+                    hash = hash.substring(0, hash.length() - "-simple".length());
+                }
+                hashes.add(hash);
+            }
+        }
+        return hashes;
+    }
+
     @Override
     public ResponseEntity<String> isPidRegistered(
             final WebRequest request,
@@ -505,7 +718,7 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
         if (typingService.isIdentifierRegistered(pid)) {
             LOG.trace("PID successfully checked.");
             if (applicationProps.getStorageStrategy().storesResolved()) {
-                storeLocally(pid, false);
+                knownPidWriter.store(pid, false);
             }
             return ResponseEntity.ok().body("PID is registered.");
         } else {
@@ -514,26 +727,6 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
         }
     }
 
-    /**
-     * Stores the PID in a local database.
-     * 
-     * @param pid    the PID
-     * @param update if true, updates the modified timestamp if it already exists.
-     *               If it does not exist, it will be created with both timestamps
-     *               (created and modified) being the same.
-     */
-    private void storeLocally(String pid, boolean update) {
-        Instant now = Instant.now();
-        Optional<KnownPid> oldPid = localPidStorage.findByPid(pid);
-        if (oldPid.isEmpty()) {
-            localPidStorage.saveAndFlush(new KnownPid(pid, now, now));
-        } else if (update) {
-            KnownPid newPid = oldPid.get();
-            newPid.setModified(now);
-            localPidStorage.saveAndFlush(newPid);
-        }
-    }
-
     private String getContentPathFromRequest(String lastPathElement, WebRequest request) {
         String requestedUri = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE,
                 WebRequest.SCOPE_REQUEST);
@@ -551,9 +744,149 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
         String pid = getContentPathFromRequest("pid", request);
         PIDRecord rec = this.typingService.queryAllProperties(pid);
         if (applicationProps.getStorageStrategy().storesResolved()) {
-            storeLocally(pid, false);
+            knownPidWriter.store(pid, false);
         }
-        return ResponseEntity.ok().body(rec);
+        // also for 304 responses, so caches keep the representations apart
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = etagOf(rec, acceptsSimpleFormat(request));
+        if (request.checkNotModified(etag)) {
+            // 304 has been set, no need to serialize the record
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(rec);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> resolvePIDs(
+            final List<String> pids,
+            final boolean simple,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder) throws IOException {
+        int maxSize = applicationProps.getBatchMaxSize();
+        if (pids.size() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + maxSize + " PIDs can be resolved at once.");
+        }
+        LOG.info("Resolving {} PIDs", pids.size());
+        // resolve every distinct PID once, concurrently, keeping the request order
+        Map<String, CompletableFuture<PIDRecord>> pending = new LinkedHashMap<>();
+        for (String pid : new LinkedHashSet<>(pids)) {
+            pending.put(pid, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return this.typingService.queryAllProperties(pid);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, resolveExecutor));
+        }
+
+        boolean ndjson = acceptsNdjson(request);
+        StreamingResponseBody body = outputStream -> {
+            List<String> resolved = new ArrayList<>();
+            try (JsonGenerator generator = MAPPER.getFactory().createGenerator(outputStream)) {
+                if (ndjson) {
+                    generator.setRootValueSeparator(new SerializedString("\n"));
+                } else {
+                    generator.writeStartArray();
+                }
+                try {
+                    for (Map.Entry<String, CompletableFuture<PIDRecord>> entry : pending.entrySet()) {
+                        if (writeResolveResult(generator, entry.getKey(), entry.getValue(), simple)) {
+                            resolved.add(entry.getKey());
+                        }
+                        generator.flush();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // e.g. the client disconnected, so nobody needs the other results
+                    pending.values().forEach(future -> future.cancel(false));
+                    throw e;
+                }
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                } else {
+                    generator.writeEndArray();
+                }
+            }
+            if (applicationProps.getStorageStrategy().storesResolved() && !resolved.isEmpty()) {
+                knownPidWriter.store(resolved, false);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Writes the result of resolving a single PID as JSON object.
+     * 
+     * @return true if the PID was resolved successfully.
+     */
+    private boolean writeResolveResult(
+            JsonGenerator generator,
+            String pid,
+            CompletableFuture<PIDRecord> pending,
+            boolean simple) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("pid", pid);
+        boolean success;
+        try {
+            PIDRecord record = pending.join();
+            generator.writeNumberField("status", HttpStatus.OK.value());
+            generator.writeObjectField("record", simple ? new SimplePidRecord(record) : record);
+            success = true;
+        } catch (CompletionException e) {
+            Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            generator.writeNumberField("status", statusOf(cause));
+            generator.writeStringField("message", cause.getMessage());
+            success = false;
+        }
+        generator.writeEndObject();
+        return success;
+    }
+
+    /**
+     * Determines if a record is returned in the simple format, like the content
+     * negotiation does for handlers producing both formats.
+     * 
+     * @param request the request.
+     * @return true if the simple format is preferred over JSON.
+     */
+    private static boolean acceptsSimpleFormat(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(accepted);
+        MediaType simple = MediaType.valueOf(SimplePidRecord.CONTENT_TYPE);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.isCompatibleWith(simple) && !mediaType.isWildcardSubtype()) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsNdjson(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON) && !mediaType.isWildcardSubtype()) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -570,6 +903,12 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Queries known PIDs within the given (inclusive) intervals. Null bounds
+     * are not applied. The query is executed as a single, paginated database
+     * query. Unsorted requests are sorted by creation time and PID, so pages
+     * are stable.
+     */
     public Page<KnownPid> findAllPage(
         Instant createdAfter,
         Instant createdBefore,
@@ -577,41 +916,16 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
         Instant modifiedBefore,
         Pageable pageable
     ) {
-        final boolean queriesCreated = createdAfter != null || createdBefore != null;
-        final boolean queriesModified = modifiedAfter != null || modifiedBefore != null;
-        if (queriesCreated && createdAfter == null) {
-            createdAfter = Instant.EPOCH;
-        }
-        if (queriesCreated && createdBefore == null) {
-            createdBefore = Instant.now().plus(1, ChronoUnit.DAYS);
-        }
-        if (queriesModified && modifiedAfter == null) {
-            modifiedAfter = Instant.EPOCH;
-        }
-        if (queriesModified && modifiedBefore == null) {
-            modifiedBefore = Instant.now().plus(1, ChronoUnit.DAYS);
-        }
-
-        Page<KnownPid> resultCreatedTimestamp = Page.empty();
-        Page<KnownPid> resultModifiedTimestamp = Page.empty();
-        if (queriesCreated) {
-            resultCreatedTimestamp = this.localPidStorage
-                .findDistinctPidsByCreatedBetween(createdAfter, createdBefore, pageable);
-        }
-        if (queriesModified) {
-            resultModifiedTimestamp = this.localPidStorage
-                .findDistinctPidsByModifiedBetween(modifiedAfter, modifiedBefore, pageable);
-        }
-        if (queriesCreated && queriesModified) {
-            final Page<KnownPid> tmp = resultModifiedTimestamp;
-            final List<KnownPid> intersection = resultCreatedTimestamp.filter((x) -> tmp.getContent().contains(x)).toList();
-            return new PageImpl<>(intersection);
-        } else if (queriesCreated) {
-            return resultCreatedTimestamp;
-        } else if (queriesModified) {
-            return resultModifiedTimestamp;
+        if (pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                Sort.by("created", "pid"));
         }
-        return new PageImpl<>(this.localPidStorage.findAll());
+        return this.localPidStorage.findAll(
+            KnownPidSpecifications.createdAndModifiedBetween(
+                createdAfter, createdBefore, modifiedAfter, modifiedBefore),
+            pageable);
     }
 
     private boolean executeValidationStrategy(PIDRecord pidr) throws DataTypeException, IOException {
@@ -692,6 +1006,177 @@ public class TypingRESTResourceImpl implements ITypingRestResource {
         return ResponseEntity.ok().body(tabPage);
     }
 
+    @Override
+    public ResponseEntity<List<KnownPid>> findAllByCursor(
+            Instant createdAfter,
+            Instant createdBefore,
+            Instant modifiedAfter,
+            Instant modifiedBefore,
+            String cursor,
+            String order,
+            int size,
+            WebRequest request,
+            HttpServletResponse response,
+            UriComponentsBuilder uriBuilder) throws IOException
+    {
+        KnownPidCursor position;
+        try {
+            position = cursor.isBlank()
+                ? KnownPidCursor.start(KnownPidCursor.Order.of(order))
+                : KnownPidCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor or order.", e);
+        }
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        Specification<KnownPid> filter = KnownPidSpecifications.createdAndModifiedBetween(
+            createdAfter, createdBefore, modifiedAfter, modifiedBefore);
+        List<KnownPid> page = this.localPidStorage.findAll(
+            filter.and(position.toSpecification()),
+            position.getOrder().sort(),
+            limit);
+
+        ResponseEntity.BodyBuilder result = ResponseEntity.ok();
+        if (page.size() == limit) {
+            KnownPidCursor next = position.after(page.get(page.size() - 1));
+            UriComponentsBuilder nextPage = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .queryParam("cursor", next.encode())
+                .queryParam("size", limit);
+            addQueryParamIfPresent(nextPage, "created_after", createdAfter);
+            addQueryParamIfPresent(nextPage, "created_before", createdBefore);
+            addQueryParamIfPresent(nextPage, "modified_after", modifiedAfter);
+            addQueryParamIfPresent(nextPage, "modified_before", modifiedBefore);
+            result.header(HttpHeaders.LINK, "<" + nextPage.build().encode().toUriString() + ">; rel=\"next\"");
+        }
+        return result.body(page);
+    }
+
+    private static void addQueryParamIfPresent(UriComponentsBuilder builder, String name, Instant value) {
+        if (value != null) {
+            builder.queryParam(name, value.toString());
+        }
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            Instant createdAfter,
+            Instant createdBefore,
+            Instant modifiedAfter,
+            Instant modifiedBefore,
+            String order,
+            WebRequest request,
+            HttpServletResponse response,
+            UriComponentsBuilder uriBuilder) throws IOException
+    {
+        KnownPidCursor.Order ordering;
+        try {
+            ordering = KnownPidCursor.Order.of(order);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid order: " + order, e);
+        }
+        Specification<KnownPid> filter = KnownPidSpecifications.createdAndModifiedBetween(
+            createdAfter, createdBefore, modifiedAfter, modifiedBefore);
+        boolean ndjson = acceptsNdjson(request);
+
+        // Reads the PIDs in chunks, using keyset pagination. This keeps the memory
+        // usage constant and does not hold a database connection while writing.
+        StreamingResponseBody body = outputStream -> {
+            KnownPidExportFormat format = ndjson
+                ? new NdjsonKnownPidFormat(outputStream)
+                : new CsvKnownPidFormat(outputStream);
+            KnownPidCursor position = KnownPidCursor.start(ordering);
+            List<KnownPid> chunk;
+            do {
+                chunk = this.localPidStorage.findAll(
+                    filter.and(position.toSpecification()),
+                    ordering.sort(),
+                    EXPORT_CHUNK_SIZE);
+                for (KnownPid known : chunk) {
+                    format.write(known);
+                }
+                format.flush();
+                if (!chunk.isEmpty()) {
+                    position = position.after(chunk.get(chunk.size() - 1));
+                }
+            } while (chunk.size() == EXPORT_CHUNK_SIZE);
+            format.close();
+        };
+        return ResponseEntity.ok()
+            .contentType(ndjson ? MediaType.APPLICATION_NDJSON : TEXT_CSV)
+            .body(body);
+    }
+
+    /** Writes known PIDs in one of the export formats. */
+    private interface KnownPidExportFormat {
+        void write(KnownPid known) throws IOException;
+
+        void flush() throws IOException;
+
+        void close() throws IOException;
+    }
+
+    /** Newline-delimited JSON, one known PID per line. */
+    private static class NdjsonKnownPidFormat implements KnownPidExportFormat {
+        private final JsonGenerator generator;
+
+        NdjsonKnownPidFormat(OutputStream outputStream) throws IOException {
+            this.generator = MAPPER.getFactory().createGenerator(outputStream);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void write(KnownPid known) throws IOException {
+            generator.writeObject(known);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeRaw('\n');
+            generator.close();
+        }
+    }
+
+    /** CSV with a header line and the columns pid, created, modified. */
+    private static class CsvKnownPidFormat implements KnownPidExportFormat {
+        private final Writer writer;
+
+        CsvKnownPidFormat(OutputStream outputStream) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            this.writer.write("pid,created,modified\r\n");
+        }
+
+        @Override
+        public void write(KnownPid known) throws IOException {
+            writer.write(csvField(known.getPid()));
+            writer.write(',');
+            writer.write(String.valueOf(known.getCreated()));
+            writer.write(',');
+            writer.write(String.valueOf(known.getModified()));
+            writer.write("\r\n");
+        }
+
+        private static String csvField(String value) {
+            if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
     // /**
     // * Simple ping method for testing (check whether the API is running etc.). Not
     // * part of the official interface description.
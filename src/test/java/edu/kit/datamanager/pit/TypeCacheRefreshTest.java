@@ -0,0 +1,116 @@
+package edu.kit.datamanager.pit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import edu.kit.datamanager.pit.configuration.ApplicationProperties;
+import edu.kit.datamanager.pit.domain.TypeDefinition;
+import edu.kit.datamanager.pit.typeregistry.ITypeRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TypeCacheRefreshTest {
+
+    private final ITypeRegistry typeRegistry = Mockito.mock(ITypeRegistry.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    private LoadingCache<String, TypeDefinition> typeCache;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties props = new ApplicationProperties();
+        props.setMaximumSize(100);
+        props.setRefreshAfterWrite(1);
+        props.setExpireAfterWrite(10);
+        Application application = new Application() {
+            @Override
+            public ITypeRegistry typeRegistry() {
+                return typeRegistry;
+            }
+
+            @Override
+            protected Ticker typeCacheTicker() {
+                return new Ticker() {
+                    @Override
+                    public long read() {
+                        return nanos.get();
+                    }
+                };
+            }
+        };
+        // reloads run synchronously, so they are done when refresh returns
+        typeCache = application.typeCache(props, MoreExecutors.newDirectExecutorService(), meterRegistry);
+    }
+
+    private static TypeDefinition type(String identifier, String description) {
+        TypeDefinition type = new TypeDefinition();
+        type.setIdentifier(identifier);
+        type.setDescription(description);
+        return type;
+    }
+
+    private void advanceMinutes(long minutes) {
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+    }
+
+    private double refreshFailures() {
+        return meterRegistry.get("pit.typeregistry.cache.refresh.failures").counter().count();
+    }
+
+    @Test
+    void testFailedRefreshKeepsOldValue() throws Exception {
+        TypeDefinition first = type("test/type", "first");
+        TypeDefinition second = type("test/type", "second");
+        Mockito.when(typeRegistry.queryTypeDefinition("test/type"))
+            .thenReturn(first)
+            .thenThrow(new IOException("type registry unavailable"))
+            .thenReturn(second);
+
+        assertSame(first, typeCache.get("test/type"));
+        assertEquals(0.0, refreshFailures());
+
+        typeCache.refresh("test/type");
+        assertSame(first, typeCache.getIfPresent("test/type"));
+        assertEquals(1.0, refreshFailures());
+
+        typeCache.refresh("test/type");
+        assertSame(second, typeCache.getIfPresent("test/type"));
+        assertEquals(1.0, refreshFailures());
+    }
+
+    @Test
+    void testFailingRefreshesDoNotExtendLifetime() throws Exception {
+        TypeDefinition first = type("test/type", "first");
+        Mockito.when(typeRegistry.queryTypeDefinition("test/type"))
+            .thenReturn(first)
+            .thenThrow(new IOException("type registry unavailable"));
+
+        assertSame(first, typeCache.get("test/type"));
+        // every access after the refresh interval triggers a (failing) refresh
+        for (int minute = 2; minute < 10; minute += 2) {
+            advanceMinutes(2);
+            assertSame(first, typeCache.get("test/type"));
+        }
+        assertEquals(4.0, refreshFailures());
+
+        // the lifetime counts from the last successful load
+        advanceMinutes(2);
+        assertNull(typeCache.getIfPresent("test/type"));
+        assertThrows(ExecutionException.class, () -> typeCache.get("test/type"));
+    }
+}
@@ -0,0 +1,70 @@
+package edu.kit.datamanager.pit.domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.datamanager.pit.web.ApiMockUtils;
+
+class CompactPidRecordTest {
+
+    @Test
+    void testRoundTrip() throws Exception {
+        PIDRecord original = ApiMockUtils.getSomePidRecordInstance();
+        PIDRecord restored = CompactPidRecord.of(original).toPidRecord();
+        assertEquals(original, restored);
+        assertEquals(original.getPid(), restored.getPid());
+        for (String key : original.getPropertyIdentifiers()) {
+            assertEquals(
+                original.getEntries().get(key).get(0).getName(),
+                restored.getEntries().get(key).get(0).getName());
+        }
+    }
+
+    @Test
+    void testLookups() {
+        PIDRecord rec = new PIDRecord().withPID("fake/pid/42");
+        rec.addEntry("b", "nameB", "b1");
+        rec.addEntry("a", "nameA", "a1");
+        rec.addEntry("a", "nameA", "a2");
+        CompactPidRecord compact = CompactPidRecord.of(rec);
+
+        assertEquals(3, compact.size());
+        assertEquals("fake/pid/42", compact.getPid());
+        assertEquals(List.of("a", "b"), compact.getPropertyIdentifiers());
+        assertTrue(compact.hasProperty("a"));
+        assertFalse(compact.hasProperty("c"));
+        assertEquals("a1", compact.getPropertyValue("a"));
+        assertNull(compact.getPropertyValue("c"));
+        assertArrayEquals(new String[] {"a1", "a2"}, compact.getPropertyValues("a"));
+        assertArrayEquals(new String[] {"b1"}, compact.getPropertyValues("b"));
+        assertArrayEquals(new String[0], compact.getPropertyValues("c"));
+    }
+
+    @Test
+    void testKeysAreShared() throws Exception {
+        CompactPidRecord first = CompactPidRecord.of(ApiMockUtils.getSomePidRecordInstance());
+        CompactPidRecord second = CompactPidRecord.of(ApiMockUtils.getSomePidRecordInstance());
+        for (int i = 0; i < first.getPropertyIdentifiers().size(); i++) {
+            assertSame(first.getPropertyIdentifiers().get(i), second.getPropertyIdentifiers().get(i));
+        }
+    }
+
+    @Test
+    void testWithPidDoesNotModifyOriginal() {
+        PIDRecord rec = new PIDRecord().withPID("first");
+        rec.addEntry("a", "nameA", "a1");
+        CompactPidRecord compact = CompactPidRecord.of(rec);
+        CompactPidRecord other = compact.withPid("second");
+        assertEquals("first", compact.getPid());
+        assertEquals("second", other.getPid());
+        assertEquals("a1", other.getPropertyValue("a"));
+    }
+}
@@ -2,6 +2,7 @@ package edu.kit.datamanager.pit.domain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -150,4 +151,51 @@ public class PIDRecordTest {
         rec.removePropertiesNotListed(propertiesToKeep);
         assertFalse(rec.hasProperty(id1));
     }
+
+    @Test
+    void testEqualsIgnoresOrderAndNames() {
+        PIDRecord a = new PIDRecord().withPID(PID);
+        a.addEntry("key1", "name", "v1");
+        a.addEntry("key1", "name", "v2");
+        a.addEntry("key2", "name", "v3");
+        PIDRecord b = new PIDRecord().withPID(PID);
+        b.addEntry("key2", "otherName", "v3");
+        b.addEntry("key1", "otherName", "v2");
+        b.addEntry("key1", "otherName", "v1");
+
+        assertEquals(a, b);
+        assertEquals(b, a);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(a.getContentHash(), b.getContentHash());
+    }
+
+    @Test
+    void testNotEqualWithDifferentContent() {
+        PIDRecord a = new PIDRecord().withPID(PID);
+        a.addEntry("key1", "name", "v1");
+        a.addEntry("key1", "name", "v1");
+        PIDRecord b = new PIDRecord().withPID(PID);
+        b.addEntry("key1", "name", "v1");
+        b.addEntry("key1", "name", "v2");
+        PIDRecord c = new PIDRecord().withPID(PID);
+        c.addEntry("key2", "name", "v1");
+        c.addEntry("key2", "name", "v1");
+
+        assertNotEquals(a, b);
+        assertNotEquals(b, a);
+        assertNotEquals(a, c);
+        assertNotEquals(a.getContentHash(), b.getContentHash());
+        assertNotEquals(a.getContentHash(), c.getContentHash());
+    }
+
+    @Test
+    void testContentHashIgnoresPid() {
+        PIDRecord a = new PIDRecord().withPID(PID);
+        a.addEntry("key1", "name", "v1");
+        PIDRecord b = new PIDRecord();
+        b.addEntry("key1", "name", "v1");
+        assertNotEquals(a, b);
+        assertEquals(a.getContentHash(), b.getContentHash());
+        assertEquals(64, a.getContentHash().length());
+    }
 }
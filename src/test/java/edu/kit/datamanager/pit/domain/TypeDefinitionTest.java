@@ -4,6 +4,13 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
 import org.junit.jupiter.api.Test;
 
 public class TypeDefinitionTest {
@@ -55,4 +62,36 @@ public class TypeDefinitionTest {
         TypeDefinition def = mapper.readValue(type, TypeDefinition.class);
         System.out.println("DEF " + def.getExpression());
     }
+
+    private static TypeDefinition subType(String identifier, boolean optional) {
+        TypeDefinition type = new TypeDefinition();
+        type.setIdentifier(identifier);
+        type.setOptional(optional);
+        return type;
+    }
+
+    @Test
+    void propertySetsFollowSubTypes() {
+        TypeDefinition profile = new TypeDefinition();
+        profile.addSubType(subType("mandatory", false));
+        profile.addSubType(subType("optional", true));
+
+        assertEquals(Set.of("mandatory", "optional"), profile.getAllProperties());
+        assertEquals(Set.of("mandatory"), profile.getMandatoryProperties());
+        assertEquals(Set.of("optional"), profile.getOptionalProperties());
+        assertTrue(profile.isOptional("optional"));
+        assertFalse(profile.isOptional("mandatory"));
+
+        profile.addSubType(subType("another", true));
+        assertEquals(Set.of("mandatory", "optional", "another"), profile.getAllProperties());
+        assertEquals(Set.of("optional", "another"), profile.getOptionalProperties());
+    }
+
+    @Test
+    void propertySetsAreImmutable() {
+        TypeDefinition profile = new TypeDefinition();
+        profile.addSubType(subType("mandatory", false));
+        Set<String> all = profile.getAllProperties();
+        assertThrows(UnsupportedOperationException.class, () -> all.add("other"));
+    }
 }
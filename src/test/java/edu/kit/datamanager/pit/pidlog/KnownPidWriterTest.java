@@ -0,0 +1,130 @@
+package edu.kit.datamanager.pit.pidlog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@TestPropertySource(
+    locations = "/test/application-test.properties",
+    properties = {
+        "pit.pidlog.async.enabled=true",
+        // flush manually only
+        "pit.pidlog.async.flushIntervalMillis=3600000"
+    }
+)
+@ActiveProfiles("test")
+class KnownPidWriterTest {
+
+    @Autowired
+    private KnownPidWriter writer;
+
+    @Autowired
+    private KnownPidsDao knownPidsDao;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        writer.flush();
+        knownPidsDao.deleteAll();
+    }
+
+    @Test
+    void testWritesQueuedPidsOnFlush() {
+        writer.store("sandboxed/a", true);
+        writer.store(List.of("sandboxed/b", "sandboxed/c"), true);
+        assertEquals(0, knownPidsDao.count());
+        assertEquals(3.0, meterRegistry.get("pit.pidlog.queue.size").gauge().value());
+
+        writer.flush();
+        assertEquals(3, knownPidsDao.count());
+        assertEquals(0.0, meterRegistry.get("pit.pidlog.queue.size").gauge().value());
+    }
+
+    @Test
+    void testMergesRepeatedTouches() throws InterruptedException {
+        writer.store("sandboxed/a", false);
+        Thread.sleep(5);
+        writer.store("sandboxed/a", true);
+        writer.store("sandboxed/a", false);
+        writer.flush();
+
+        assertEquals(1, knownPidsDao.count());
+        KnownPid known = knownPidsDao.findByPid("sandboxed/a").get();
+        assertTrue(known.getCreated().isBefore(known.getModified()));
+    }
+
+    @Test
+    void testKnownPidsKeepCreationTime() throws InterruptedException {
+        writer.store("sandboxed/a", false);
+        writer.flush();
+        Instant created = knownPidsDao.findByPid("sandboxed/a").get().getCreated();
+
+        Thread.sleep(5);
+        writer.store("sandboxed/a", false);
+        writer.flush();
+        KnownPid resolved = knownPidsDao.findByPid("sandboxed/a").get();
+        assertEquals(created, resolved.getCreated());
+        assertEquals(created, resolved.getModified());
+
+        Thread.sleep(5);
+        writer.store("sandboxed/a", true);
+        writer.flush();
+        KnownPid modified = knownPidsDao.findByPid("sandboxed/a").get();
+        assertEquals(created, modified.getCreated());
+        assertTrue(created.isBefore(modified.getModified()));
+    }
+
+    @Test
+    void testConcurrentDuplicatesAreWrittenOnce() throws Exception {
+        List<String> pids = List.of("sandboxed/a", "sandboxed/b", "sandboxed/c");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    writer.store(pids, true);
+                    writer.flush();
+                }, executor));
+            }
+            start.countDown();
+            // fails if any of the concurrent writes threw
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        writer.flush();
+
+        assertEquals(0.0, meterRegistry.get("pit.pidlog.queue.size").gauge().value());
+        assertEquals(pids.size(), knownPidsDao.count());
+        for (String pid : pids) {
+            assertTrue(knownPidsDao.findByPid(pid).isPresent());
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.AfterAll;
@@ -22,6 +23,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -207,4 +210,29 @@ public class KnownPidsDaoTest {
             page = page_siblings.nextPageable();
         } while (page_siblings.hasNext());
     }
+
+    @Test
+    void testFindByCombinedSpecificationPageable() {
+        Pageable page = PageRequest.of(0, 2, Sort.by("created", "pid"));
+        Specification<KnownPid> spec = KnownPidSpecifications.createdAndModifiedBetween(
+            TOO_SOON.minus(2, ChronoUnit.DAYS), TOO_LATE, TOO_SOON, MAX);
+        List<String> found = new ArrayList<>();
+        Page<KnownPid> result;
+        do {
+            result = knownPidsDao.findAll(spec, page);
+            assertEquals(5, result.getTotalElements());
+            assertEquals(3, result.getTotalPages());
+            result.forEach(known -> found.add(known.getPid()));
+            page = result.nextPageable();
+        } while (result.hasNext());
+        assertEquals(List.of("too_soon2", "too_soon", "now", "later", "sooner"), found);
+    }
+
+    @Test
+    void testFindByOpenSpecification() {
+        Specification<KnownPid> spec = KnownPidSpecifications.createdAndModifiedBetween(
+            null, TOO_LATE, TOO_LATE, null);
+        assertEquals(2, knownPidsDao.count(spec));
+        assertEquals(7, knownPidsDao.count(KnownPidSpecifications.createdAndModifiedBetween(null, null, null, null)));
+    }
 }
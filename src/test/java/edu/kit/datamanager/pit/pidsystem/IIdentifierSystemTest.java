@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.params.ParameterizedTest;
@@ -16,8 +17,10 @@ import org.junit.jupiter.params.provider.MethodSource;
 import edu.kit.datamanager.pit.configuration.HandleProtocolProperties;
 import edu.kit.datamanager.pit.domain.PIDRecord;
 import edu.kit.datamanager.pit.domain.TypeDefinition;
+import edu.kit.datamanager.pit.pidsystem.impl.CachingIdentifierSystem;
 import edu.kit.datamanager.pit.pidsystem.impl.HandleProtocolAdapter;
 import edu.kit.datamanager.pit.pidsystem.impl.InMemoryIdentifierSystem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.handle.hdllib.HandleException;
 
 /**
@@ -47,11 +50,19 @@ public class IIdentifierSystemTest {
         IIdentifierSystem inMemory = new InMemoryIdentifierSystem();
         String inMemoryPid = inMemory.registerPID(rec);
 
+        IIdentifierSystem cached = new CachingIdentifierSystem(
+            inMemory,
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(10),
+            100,
+            new SimpleMeterRegistry());
+
         // TODO initiate REST impl
 
         return Stream.of(
             Arguments.of(handleProtocol, "21.T11148/076759916209e5d62bd5", "21.T11148/NONEXISTENT123"),
-            Arguments.of(inMemory, inMemoryPid, "sandboxed/NONEXISTENT")
+            Arguments.of(inMemory, inMemoryPid, "sandboxed/NONEXISTENT"),
+            Arguments.of(cached, inMemoryPid, "sandboxed/NONEXISTENT")
         );
     }
 
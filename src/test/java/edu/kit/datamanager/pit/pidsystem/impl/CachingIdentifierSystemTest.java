@@ -0,0 +1,175 @@
+package edu.kit.datamanager.pit.pidsystem.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.pidsystem.IIdentifierSystem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachingIdentifierSystemTest {
+
+    private InMemoryIdentifierSystem delegate;
+    private MeterRegistry meterRegistry;
+    private IIdentifierSystem cached;
+
+    @BeforeEach
+    void setup() {
+        this.delegate = new InMemoryIdentifierSystem();
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.cached = new CachingIdentifierSystem(
+            delegate,
+            Duration.ofMinutes(1),
+            Duration.ofMinutes(1),
+            100,
+            meterRegistry);
+    }
+
+    private PIDRecord exampleRecord(String value) {
+        PIDRecord r = new PIDRecord();
+        r.addEntry("21.T11148/397d831aa3a9d18eb52c", "", value);
+        return r;
+    }
+
+    @Test
+    void testRepeatedResolvingHitsCache() throws IOException {
+        String pid = delegate.registerPID(exampleRecord("2021-12-21T17:36:09.541+00:00"));
+        cached.queryAllProperties(pid);
+        cached.queryAllProperties(pid);
+        cached.isIdentifierRegistered(pid);
+        assertEquals(2.0, meterRegistry.get("cache.gets")
+            .tag("cache", "pidRecordCache")
+            .tag("result", "hit")
+            .functionCounter()
+            .count());
+    }
+
+    @Test
+    void testReturnsCopies() throws IOException {
+        String pid = delegate.registerPID(exampleRecord("2021-12-21T17:36:09.541+00:00"));
+        PIDRecord first = cached.queryAllProperties(pid);
+        first.addEntry("21.T11148/aafd5fb4c7222e2d950a", "", "2021-12-21T17:36:09.541+00:00");
+        PIDRecord second = cached.queryAllProperties(pid);
+        assertNotSame(first, second);
+        assertFalse(second.hasProperty("21.T11148/aafd5fb4c7222e2d950a"));
+    }
+
+    @Test
+    void testUpdateInvalidatesCache() throws IOException {
+        String pid = cached.registerPID(exampleRecord("old"));
+        assertEquals("old", cached.queryAllProperties(pid).getPropertyValue("21.T11148/397d831aa3a9d18eb52c"));
+        PIDRecord update = exampleRecord("new").withPID(pid);
+        assertTrue(cached.updatePID(update));
+        assertEquals("new", cached.queryAllProperties(pid).getPropertyValue("21.T11148/397d831aa3a9d18eb52c"));
+    }
+
+    /**
+     * An identifier system whose lookups can be held back after reading.
+     */
+    private static class SlowIdentifierSystem extends InMemoryIdentifierSystem {
+        final AtomicInteger lookups = new AtomicInteger();
+        final CountDownLatch read = new CountDownLatch(1);
+        volatile CountDownLatch proceed = new CountDownLatch(0);
+
+        @Override
+        public PIDRecord queryAllProperties(String pid) throws IOException {
+            lookups.incrementAndGet();
+            PIDRecord result = super.queryAllProperties(pid);
+            read.countDown();
+            try {
+                proceed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        }
+    }
+
+    private IIdentifierSystem newCache(IIdentifierSystem delegate) {
+        return new CachingIdentifierSystem(
+            delegate,
+            Duration.ofMinutes(1),
+            Duration.ofMinutes(1),
+            100,
+            meterRegistry);
+    }
+
+    @Test
+    void testConcurrentMissesShareLookup() throws Exception {
+        SlowIdentifierSystem slow = new SlowIdentifierSystem();
+        IIdentifierSystem cache = newCache(slow);
+        String pid = slow.registerPID(exampleRecord("value"));
+        slow.proceed = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PIDRecord>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.queryAllProperties(pid)));
+            }
+            assertTrue(slow.read.await(5, TimeUnit.SECONDS));
+            // give the other readers time to join the running lookup
+            Thread.sleep(200);
+            slow.proceed.countDown();
+            for (Future<PIDRecord> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS).getPropertyValue("21.T11148/397d831aa3a9d18eb52c"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, slow.lookups.get());
+    }
+
+    @Test
+    void testReadOverlappingUpdateIsNotCached() throws Exception {
+        SlowIdentifierSystem slow = new SlowIdentifierSystem();
+        IIdentifierSystem cache = newCache(slow);
+        String pid = slow.registerPID(exampleRecord("old"));
+        slow.proceed = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // a read starts before the update and finishes after it
+            Future<PIDRecord> read = executor.submit(() -> cache.queryAllProperties(pid));
+            assertTrue(slow.read.await(5, TimeUnit.SECONDS));
+            assertTrue(cache.updatePID(exampleRecord("new").withPID(pid)));
+            slow.proceed.countDown();
+            read.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the outdated result of the overlapping read is not served
+        assertEquals("new", cache.queryAllProperties(pid).getPropertyValue("21.T11148/397d831aa3a9d18eb52c"));
+        assertEquals("new", cache.queryAllProperties(pid).getPropertyValue("21.T11148/397d831aa3a9d18eb52c"));
+    }
+
+    @Test
+    void testUnknownPidIsCached() throws IOException {
+        assertNull(cached.queryAllProperties("sandboxed/NONEXISTENT"));
+        assertFalse(cached.isIdentifierRegistered("sandboxed/NONEXISTENT"));
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+            .tag("cache", "pidNotFoundCache")
+            .tag("result", "hit")
+            .functionCounter()
+            .count());
+    }
+}
@@ -0,0 +1,100 @@
+package edu.kit.datamanager.pit.pidsystem.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.handle.api.HSAdapter;
+import net.handle.hdllib.HandleException;
+
+class HandleClientPoolTest {
+
+    private static HandleClientPool newPool(int size, int maxRetries) throws HandleException {
+        return new HandleClientPool(
+            () -> Mockito.mock(HSAdapter.class),
+            size,
+            Duration.ofMillis(100),
+            maxRetries,
+            Duration.ofMillis(1),
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testTransientErrorsAreRetried() throws Exception {
+        HandleClientPool pool = newPool(1, 2);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = pool.execute(client -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new HandleException(HandleException.CANNOT_CONNECT_TO_SERVER, "down");
+            }
+            return "ok";
+        }, false);
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testServerErrorsAreOnlyRetriedIfIdempotent() throws Exception {
+        HandleClientPool pool = newPool(1, 2);
+        AtomicInteger attempts = new AtomicInteger();
+        HandleClientPool.HandleOperation<String> failing = client -> {
+            attempts.incrementAndGet();
+            throw new HandleException(HandleException.SERVER_ERROR, "error");
+        };
+        assertThrows(HandleException.class, () -> pool.execute(failing, false));
+        assertEquals(1, attempts.get());
+        attempts.set(0);
+        assertThrows(HandleException.class, () -> pool.execute(failing, true));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testOtherErrorsAreNotRetried() throws Exception {
+        HandleClientPool pool = newPool(1, 2);
+        AtomicInteger attempts = new AtomicInteger();
+        HandleException e = assertThrows(HandleException.class, () -> pool.execute(client -> {
+            attempts.incrementAndGet();
+            throw new HandleException(HandleException.HANDLE_DOES_NOT_EXIST, "unknown");
+        }, true));
+        assertEquals(HandleException.HANDLE_DOES_NOT_EXIST, e.getCode());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testExhaustedPoolTimesOut() throws Exception {
+        HandleClientPool pool = newPool(1, 0);
+        CountDownLatch borrowed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                pool.execute(client -> {
+                    borrowed.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                }, true);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        holder.start();
+        borrowed.await(5, TimeUnit.SECONDS);
+        assertThrows(IOException.class, () -> pool.execute(client -> "never", true));
+        release.countDown();
+        holder.join();
+        // the client is available again
+        assertEquals("again", pool.execute(client -> "again", true));
+    }
+}
@@ -0,0 +1,56 @@
+package edu.kit.datamanager.pit.pidsystem.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.datamanager.pit.pidsystem.impl.HandleProtocolAdapter.HandleDiff;
+import net.handle.hdllib.HandleValue;
+
+class HandleDiffTest {
+
+    private static HandleValue value(int index, String type, String data) {
+        HandleValue v = new HandleValue();
+        v.setIndex(index);
+        v.setType(type.getBytes(StandardCharsets.UTF_8));
+        v.setData(data.getBytes(StandardCharsets.UTF_8));
+        return v;
+    }
+
+    @Test
+    void testUnchangedValuesAreSkipped() throws Exception {
+        Map<Integer, HandleValue> recordOld = new HashMap<>();
+        recordOld.put(1, value(1, "type/a", "a"));
+        recordOld.put(2, value(2, "type/b", "b"));
+        recordOld.put(3, value(3, "type/c", "c"));
+        Map<Integer, HandleValue> recordNew = new HashMap<>();
+        recordNew.put(1, value(1, "type/a", "a"));
+        recordNew.put(2, value(2, "type/b", "changed"));
+        recordNew.put(4, value(4, "type/d", "d"));
+
+        HandleDiff diff = new HandleDiff(recordOld, recordNew);
+        assertEquals(1, diff.added().length);
+        assertEquals(4, diff.added()[0].getIndex());
+        assertEquals(1, diff.updated().length);
+        assertEquals(2, diff.updated()[0].getIndex());
+        assertEquals(1, diff.removed().length);
+        assertEquals(3, diff.removed()[0].getIndex());
+    }
+
+    @Test
+    void testIdenticalRecordsHaveNoDiff() throws Exception {
+        Map<Integer, HandleValue> recordOld = new HashMap<>();
+        recordOld.put(1, value(1, "type/a", "a"));
+        Map<Integer, HandleValue> recordNew = new HashMap<>();
+        recordNew.put(1, value(1, "type/a", "a"));
+
+        HandleDiff diff = new HandleDiff(recordOld, recordNew);
+        assertEquals(0, diff.added().length);
+        assertEquals(0, diff.updated().length);
+        assertEquals(0, diff.removed().length);
+    }
+}
@@ -0,0 +1,101 @@
+package edu.kit.datamanager.pit.pidsystem.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.datamanager.pit.common.PreconditionFailedException;
+import edu.kit.datamanager.pit.domain.PIDRecord;
+
+class InMemoryIdentifierSystemTest {
+
+    private static PIDRecord exampleRecord() {
+        PIDRecord r = new PIDRecord();
+        r.addEntry("21.T11148/397d831aa3a9d18eb52c", "", "2021-12-21T17:36:09.541+00:00");
+        return r;
+    }
+
+    @Test
+    void testConcurrentRegistrationOfEqualRecords() throws Exception {
+        InMemoryIdentifierSystem system = new InMemoryIdentifierSystem();
+        int amount = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Set<String> pids = ConcurrentHashMap.newKeySet();
+            List<Future<?>> futures = IntStream.range(0, amount)
+                .mapToObj(i -> executor.submit(() -> {
+                    pids.add(system.registerPID(exampleRecord()));
+                    return null;
+                }))
+                .collect(Collectors.toList());
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            assertEquals(amount, pids.size());
+            for (String pid : pids) {
+                assertEquals(pid, system.queryAllProperties(pid).getPid());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStoredRecordsAreNotShared() throws IOException {
+        InMemoryIdentifierSystem system = new InMemoryIdentifierSystem();
+        PIDRecord original = exampleRecord();
+        String pid = system.registerPID(original);
+        assertEquals(pid, original.getPid());
+
+        original.addEntry("21.T11148/aafd5fb4c7222e2d950a", "", "modified after registration");
+        system.queryAllProperties(pid).addEntry("21.T11148/aafd5fb4c7222e2d950a", "", "modified after query");
+        assertFalse(system.queryAllProperties(pid).hasProperty("21.T11148/aafd5fb4c7222e2d950a"));
+    }
+
+    @Test
+    void testQueryPropertiesFilters() throws IOException {
+        InMemoryIdentifierSystem system = new InMemoryIdentifierSystem();
+        PIDRecord original = exampleRecord();
+        original.addEntry("21.T11148/aafd5fb4c7222e2d950a", "", "2021-12-21T17:36:09.541+00:00");
+        String pid = system.registerPID(original);
+
+        PIDRecord filtered = system.queryProperties(pid, Set.of("21.T11148/aafd5fb4c7222e2d950a", "not/present"));
+        assertEquals(pid, filtered.getPid());
+        assertEquals(Set.of("21.T11148/aafd5fb4c7222e2d950a"), filtered.getPropertyIdentifiers());
+        assertTrue(system.queryProperties(pid, Set.of()).getEntries().isEmpty());
+        assertNull(system.queryProperties("sandboxed/unknown", Set.of("21.T11148/aafd5fb4c7222e2d950a")));
+    }
+
+    @Test
+    void testUpdateChecksExpectedVersion() throws IOException {
+        InMemoryIdentifierSystem system = new InMemoryIdentifierSystem();
+        String pid = system.registerPID(exampleRecord());
+        String version = system.queryAllProperties(pid).getContentHash();
+
+        PIDRecord update = exampleRecord().withPID(pid);
+        update.addEntry("21.T11148/aafd5fb4c7222e2d950a", "", "first update");
+        assertTrue(system.updatePID(update, Set.of(version)));
+
+        // the version the first update was based on is outdated now
+        PIDRecord outdated = exampleRecord().withPID(pid);
+        assertThrows(PreconditionFailedException.class, () -> system.updatePID(outdated, Set.of(version)));
+        assertEquals(update.getContentHash(), system.queryAllProperties(pid).getContentHash());
+
+        assertTrue(system.updatePID(outdated, null));
+        assertFalse(system.updatePID(exampleRecord().withPID("sandboxed/unknown"), Set.of(version)));
+    }
+}
@@ -0,0 +1,57 @@
+package edu.kit.datamanager.pit.pidsystem.impl.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import edu.kit.datamanager.pit.pidsystem.IPidGenerator;
+
+class PidGeneratorTest {
+
+    private static Stream<IPidGenerator> generators() {
+        return Stream.of(
+            new RandomUuidPidGenerator(),
+            new TimeOrderedUuidPidGenerator(),
+            new NodeCounterPidGenerator("node1"),
+            new NodeCounterPidGenerator(null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("generators")
+    void testConcurrentGenerationIsUnique(IPidGenerator generator) {
+        int amount = 10000;
+        Set<String> suffixes = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, amount).parallel().forEach(i -> suffixes.add(generator.generate()));
+        assertEquals(amount, suffixes.size());
+    }
+
+    @Test
+    void testTimeOrderedUuidLayout() {
+        long now = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuidPidGenerator.next(now);
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(now, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void testTimeOrderedUuidsSortByTime() {
+        String earlier = TimeOrderedUuidPidGenerator.next(1000).toString();
+        String later = TimeOrderedUuidPidGenerator.next(1001).toString();
+        assertTrue(earlier.compareTo(later) < 0);
+    }
+
+    @Test
+    void testNodeCounterUsesNodeId() {
+        assertTrue(new NodeCounterPidGenerator("node1").generate().startsWith("node1-"));
+    }
+}
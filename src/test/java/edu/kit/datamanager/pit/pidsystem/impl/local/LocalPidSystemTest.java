@@ -1,7 +1,9 @@
 package edu.kit.datamanager.pit.pidsystem.impl.local;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -16,8 +18,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
+import edu.kit.datamanager.pit.common.PidAlreadyExistsException;
 import edu.kit.datamanager.pit.domain.PIDRecord;
 import edu.kit.datamanager.pit.pidsystem.IIdentifierSystem;
+import edu.kit.datamanager.pit.pidsystem.IPidGenerator;
 import edu.kit.datamanager.pit.pidsystem.IIdentifierSystemTest;
 
 /**
@@ -38,11 +42,34 @@ public class LocalPidSystemTest {
     
     @Autowired
     IIdentifierSystem localPidSystem;
+
+    @Autowired
+    IPidGenerator pidGenerator;
     
     @Test
     void testConfig() {
         assertNotNull(localPidSystem);
     }
+
+    @Test
+    void testRegisteringExistingPidFails() throws Exception {
+        LocalPidSystem system = (LocalPidSystem) localPidSystem;
+        PIDRecord first = new PIDRecord();
+        first.addEntry("10320/loc", "", "first");
+        String pid = system.registerPID(first);
+        try {
+            system.setPidGenerator(() -> pid.substring("sandboxed/".length()));
+            PIDRecord second = new PIDRecord();
+            second.addEntry("10320/loc", "", "second");
+            assertThrows(PidAlreadyExistsException.class, () -> system.registerPID(second));
+        } finally {
+            system.setPidGenerator(pidGenerator);
+        }
+        assertEquals(first, system.queryAllProperties(pid));
+        PIDRecord third = new PIDRecord();
+        third.addEntry("10320/loc", "", "third");
+        assertNotEquals(pid, system.registerPID(third));
+    }
     
     @Test
     @Transactional
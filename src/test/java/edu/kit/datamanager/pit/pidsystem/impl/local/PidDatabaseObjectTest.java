@@ -21,4 +21,13 @@ public class PidDatabaseObjectTest {
         original.addEntry("test", "", "test");
         assertNotEquals(original, equivalent);
     }
+
+    @Test
+    void testEntriesColumnRoundTrip() throws JacksonException {
+        PidEntriesConverter converter = new PidEntriesConverter();
+        PidDatabaseObject dbo = new PidDatabaseObject(ApiMockUtils.getSomePidRecordInstance());
+        String column = converter.convertToDatabaseColumn(dbo.getEntries());
+        assertEquals(dbo.getEntries(), converter.convertToEntityAttribute(column));
+        assertEquals(0, converter.convertToEntityAttribute(null).size());
+    }
 }
@@ -0,0 +1,96 @@
+package edu.kit.datamanager.pit.typeregistry.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import edu.kit.datamanager.pit.configuration.ApplicationProperties;
+import edu.kit.datamanager.pit.domain.TypeDefinition;
+import edu.kit.datamanager.pit.typeregistry.snapshot.TypeSnapshotDao;
+
+class TypeCacheWarmupTest {
+
+    private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+    private final TypeSnapshotDao typeSnapshotDao = Mockito.mock(TypeSnapshotDao.class);
+    private final ApplicationProperties props = new ApplicationProperties();
+    private ExecutorService executor;
+    private LoadingCache<String, TypeDefinition> typeCache;
+    private TypeCacheWarmup warmup;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        typeCache = CacheBuilder.newBuilder().build(new CacheLoader<String, TypeDefinition>() {
+            @Override
+            public TypeDefinition load(String typeIdentifier) throws IOException {
+                loaded.add(typeIdentifier);
+                if (typeIdentifier.startsWith("unknown/")) {
+                    throw new IOException("Type " + typeIdentifier + " not found.");
+                }
+                TypeDefinition type = new TypeDefinition();
+                type.setIdentifier(typeIdentifier);
+                return type;
+            }
+        });
+        warmup = new TypeCacheWarmup();
+        ReflectionTestUtils.setField(warmup, "typeCache", typeCache);
+        ReflectionTestUtils.setField(warmup, "applicationProperties", props);
+        ReflectionTestUtils.setField(warmup, "typeSnapshotDao", typeSnapshotDao);
+        ReflectionTestUtils.setField(warmup, "typeLoaderExecutor", executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testLoadsConfiguredTypes() {
+        props.setPreloadedTypes(List.of("test/profile", " test/other ", "", "unknown/type"));
+        warmup.run(new DefaultApplicationArguments());
+
+        assertEquals(Set.of("test/profile", "test/other", "unknown/type"), loaded);
+        assertEquals(2, typeCache.size());
+        assertNotNull(typeCache.getIfPresent("test/profile"));
+        assertNotNull(typeCache.getIfPresent("test/other"));
+        assertNull(typeCache.getIfPresent("unknown/type"));
+        Mockito.verifyNoInteractions(typeSnapshotDao);
+    }
+
+    @Test
+    void testLoadsStoredSnapshots() {
+        props.setPreloadedTypes(List.of("test/profile"));
+        props.setPersistentTypeCache(true);
+        Mockito.when(typeSnapshotDao.findAllIdentifiers()).thenReturn(List.of("test/profile", "test/stored"));
+        warmup.run(new DefaultApplicationArguments());
+
+        assertEquals(Set.of("test/profile", "test/stored"), loaded);
+        assertEquals(2, typeCache.size());
+    }
+
+    @Test
+    void testDoesNothingWithoutTypes() {
+        props.setPreloadedTypes(List.of());
+        warmup.run(new DefaultApplicationArguments());
+        assertEquals(0, typeCache.size());
+        assertEquals(Set.of(), loaded);
+    }
+}
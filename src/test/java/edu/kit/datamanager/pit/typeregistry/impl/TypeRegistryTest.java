@@ -0,0 +1,241 @@
+package edu.kit.datamanager.pit.typeregistry.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import edu.kit.datamanager.pit.configuration.ApplicationProperties;
+import edu.kit.datamanager.pit.domain.TypeDefinition;
+import edu.kit.datamanager.pit.typeregistry.snapshot.TypeSnapshot;
+import edu.kit.datamanager.pit.typeregistry.snapshot.TypeSnapshotDao;
+
+class TypeRegistryTest {
+
+    private final Map<String, String> registry = new HashMap<>();
+    private final TypeSnapshotDao typeSnapshotDao = Mockito.mock(TypeSnapshotDao.class);
+    private ApplicationProperties props;
+    private RestTemplate restTemplate;
+    private ForkJoinPool executor;
+    private TypeRegistry typeRegistry;
+    private LoadingCache<String, TypeDefinition> typeCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        props = new ApplicationProperties();
+        props.setHandleBaseUri(new URL("http://hdl.handle.net/"));
+        props.setLoaderTimeout(10);
+        props.setExpireAfterWrite(10);
+        // a single worker, so nested profiles only resolve if the pool compensates
+        executor = new ForkJoinPool(1);
+
+        restTemplate = Mockito.mock(RestTemplate.class);
+        Mockito.when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+            .thenAnswer(invocation -> {
+                URI uri = invocation.getArgument(0);
+                return ResponseEntity.ok(registry.get(uri.getPath().substring(1)));
+            });
+
+        typeRegistry = new TypeRegistry();
+        typeRegistry.restTemplate = restTemplate;
+        typeCache = CacheBuilder.newBuilder().build(new CacheLoader<String, TypeDefinition>() {
+            @Override
+            public TypeDefinition load(String typeIdentifier) throws IOException, URISyntaxException {
+                return typeRegistry.queryTypeDefinition(typeIdentifier);
+            }
+        });
+        typeRegistry.typeCache = typeCache;
+        ReflectionTestUtils.setField(typeRegistry, "applicationProperties", props);
+        ReflectionTestUtils.setField(typeRegistry, "typeLoaderExecutor", executor);
+        ReflectionTestUtils.setField(typeRegistry, "typeSnapshotDao", typeSnapshotDao);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void register(String identifier, String properties) {
+        registry.put(identifier, "{\"identifier\": \"" + identifier + "\", \"name\": \"" + identifier
+            + "\", \"properties\": [" + properties + "]}");
+    }
+
+    private static String property(String identifier, String obligation) {
+        return "{\"name\": \"" + identifier + "\", \"identifier\": \"" + identifier
+            + "\", \"representationsAndSemantics\": [{\"obligation\": \"" + obligation + "\"}]}";
+    }
+
+    @Test
+    void testNestedProfile() throws Exception {
+        register("test/leaf", "");
+        register("test/inner", property("test/leaf", "Mandatory"));
+        register("test/outer", property("test/inner", "Mandatory") + ", " + property("test/leaf", "Optional"));
+
+        TypeDefinition outer = typeCache.get("test/outer");
+        TypeDefinition inner = outer.getSubTypes().get("test/inner");
+        assertEquals(2, outer.getSubTypes().size());
+        assertFalse(inner.isOptional());
+        assertTrue(outer.getSubTypes().get("test/leaf").isOptional());
+        // obligations of one profile do not leak into others or the cache
+        assertFalse(inner.getSubTypes().get("test/leaf").isOptional());
+        assertFalse(typeCache.get("test/leaf").isOptional());
+        assertTrue(outer.isOptional("test/leaf"));
+        assertFalse(typeCache.get("test/inner").isOptional("test/leaf"));
+    }
+
+    @Test
+    void testCyclicProfileFails() {
+        register("test/a", property("test/b", "Mandatory"));
+        register("test/b", property("test/a", "Mandatory"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> typeCache.get("test/a"));
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause.getMessage().contains("Cyclic type definition"), cause.getMessage());
+        assertEquals(0, typeCache.size());
+    }
+
+    @Test
+    void testConcurrentCyclicProfilesFailFast() throws Exception {
+        register("test/a", property("test/b", "Mandatory"));
+        register("test/b", property("test/a", "Mandatory"));
+        // both top-level loads are in flight before either requests its sub-type
+        CyclicBarrier bothFetching = new CyclicBarrier(2);
+        AtomicInteger fetches = new AtomicInteger();
+        Mockito.doAnswer(invocation -> {
+                if (fetches.incrementAndGet() <= 2) {
+                    bothFetching.await(5, TimeUnit.SECONDS);
+                }
+                URI uri = invocation.getArgument(0);
+                return ResponseEntity.ok(registry.get(uri.getPath().substring(1)));
+            })
+            .when(restTemplate).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<Throwable> a = CompletableFuture.supplyAsync(() -> failureOf("test/a"), requests);
+            CompletableFuture<Throwable> b = CompletableFuture.supplyAsync(() -> failureOf("test/b"), requests);
+            // well below the loader timeout of 10 s
+            for (Throwable failure : new Throwable[] {a.get(5, TimeUnit.SECONDS), b.get(5, TimeUnit.SECONDS)}) {
+                assertNotNull(failure);
+                Throwable cause = failure;
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                assertTrue(cause.getMessage().contains("Cyclic type definition"), cause.getMessage());
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+        assertEquals(0, typeCache.size());
+    }
+
+    private Throwable failureOf(String typeIdentifier) {
+        try {
+            typeCache.get(typeIdentifier);
+            return null;
+        } catch (ExecutionException e) {
+            return e;
+        }
+    }
+
+    private void registryFails(RuntimeException e) {
+        Mockito.doThrow(e)
+            .when(restTemplate).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+    }
+
+    private void storeSnapshot(String identifier, Instant fetched) {
+        register(identifier, "");
+        Mockito.when(typeSnapshotDao.findById(identifier))
+            .thenReturn(Optional.of(new TypeSnapshot(identifier, registry.get(identifier), fetched)));
+    }
+
+    @Test
+    void testStoresSnapshot() throws Exception {
+        props.setPersistentTypeCache(true);
+        register("test/type", "");
+        assertEquals("test/type", typeRegistry.queryTypeDefinition("test/type").getIdentifier());
+        Mockito.verify(typeSnapshotDao).save(Mockito.<TypeSnapshot>argThat(snapshot -> "test/type".equals(snapshot.getIdentifier())));
+    }
+
+    @Test
+    void testUsesFreshSnapshotWithoutRegistry() throws Exception {
+        props.setPersistentTypeCache(true);
+        storeSnapshot("test/type", Instant.now());
+        registryFails(new IllegalStateException("the registry must not be asked"));
+        assertEquals("test/type", typeRegistry.queryTypeDefinition("test/type").getIdentifier());
+    }
+
+    @Test
+    void testFallsBackToSnapshotIfRegistryUnreachable() throws Exception {
+        props.setPersistentTypeCache(true);
+        storeSnapshot("test/type", Instant.now().minus(1, ChronoUnit.DAYS));
+        registryFails(new ResourceAccessException("connection refused"));
+        TypeDefinition type = typeRegistry.queryTypeDefinition("test/type");
+        assertNotNull(type);
+        assertEquals("test/type", type.getIdentifier());
+        Mockito.verify(typeSnapshotDao, Mockito.never()).save(any());
+    }
+
+    @Test
+    void testFallsBackToSnapshotOnServerError() throws Exception {
+        props.setPersistentTypeCache(true);
+        storeSnapshot("test/type", Instant.now().minus(1, ChronoUnit.DAYS));
+        registryFails(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        assertEquals("test/type", typeRegistry.queryTypeDefinition("test/type").getIdentifier());
+    }
+
+    @Test
+    void testFailsWithoutSnapshot() {
+        props.setPersistentTypeCache(true);
+        Mockito.when(typeSnapshotDao.findById("test/type")).thenReturn(Optional.empty());
+        registryFails(new ResourceAccessException("connection refused"));
+        assertThrows(ResourceAccessException.class, () -> typeRegistry.queryTypeDefinition("test/type"));
+    }
+
+    @Test
+    void testSelfReferenceFails() {
+        register("test/self", property("test/self", "Optional"));
+        assertThrows(ExecutionException.class, () -> typeCache.get("test/self"));
+    }
+}
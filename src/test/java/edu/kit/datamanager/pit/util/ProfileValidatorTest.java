@@ -0,0 +1,85 @@
+package edu.kit.datamanager.pit.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.domain.TypeDefinition;
+
+class ProfileValidatorTest {
+
+    private static final String MANDATORY = "21.T11148/mandatory";
+    private static final String OPTIONAL = "21.T11148/optional";
+
+    private TypeDefinition profile;
+
+    private static TypeDefinition type(String identifier, boolean optional, boolean repeatable) {
+        TypeDefinition type = new TypeDefinition();
+        type.setIdentifier(identifier);
+        type.setOptional(optional);
+        type.setRepeatable(repeatable);
+        type.setSchema("{\"type\": \"string\", \"pattern\": \"^[a-z]+$\"}");
+        return type;
+    }
+
+    @BeforeEach
+    void setUp() {
+        profile = new TypeDefinition();
+        profile.setIdentifier("21.T11148/profile");
+        profile.addSubType(type(MANDATORY, false, false));
+        profile.addSubType(type(OPTIONAL, true, true));
+    }
+
+    @Test
+    void validRecord() {
+        PIDRecord record = new PIDRecord();
+        record.addEntry(MANDATORY, "", "abc");
+        record.addEntry(OPTIONAL, "", "def");
+        record.addEntry(OPTIONAL, "", "ghi");
+        assertTrue(profile.getValidator().isValid(record));
+        assertTrue(TypeValidationUtils.isValid(record, profile));
+    }
+
+    @Test
+    void missingMandatoryProperty() {
+        PIDRecord record = new PIDRecord();
+        record.addEntry(OPTIONAL, "", "def");
+        assertFalse(profile.getValidator().hasAllMandatoryProperties(record));
+        assertFalse(profile.getValidator().isValid(record));
+    }
+
+    @Test
+    void unknownProperty() {
+        PIDRecord record = new PIDRecord();
+        record.addEntry(MANDATORY, "", "abc");
+        record.addEntry("21.T11148/unknown", "", "abc");
+        assertFalse(profile.getValidator().isValid(record));
+    }
+
+    @Test
+    void invalidValue() {
+        PIDRecord record = new PIDRecord();
+        record.addEntry(MANDATORY, "", "ABC");
+        assertFalse(profile.getValidator().isValid(record));
+    }
+
+    @Test
+    void validatorFollowsSubTypeChanges() {
+        PIDRecord record = new PIDRecord();
+        record.addEntry(MANDATORY, "", "abc");
+        assertTrue(profile.getValidator().isValid(record));
+        profile.addSubType(type("21.T11148/another", false, false));
+        assertFalse(profile.getValidator().isValid(record));
+    }
+
+    @Test
+    void repeatableFlags() {
+        ProfileValidator validator = profile.getValidator();
+        assertTrue(validator.isRepeatable(OPTIONAL));
+        assertFalse(validator.isRepeatable(MANDATORY));
+        assertFalse(validator.isRepeatable("21.T11148/unknown"));
+    }
+}
@@ -0,0 +1,32 @@
+package edu.kit.datamanager.pit.util;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.everit.json.schema.Schema;
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+class SchemaCacheTest {
+
+    private static final String STRING_SCHEMA = "{\"type\": \"string\"}";
+    private static final String NUMBER_SCHEMA = "{\"type\": \"number\"}";
+
+    @Test
+    void identicalSchemasAreCompiledOnce() {
+        Schema first = SchemaCache.load(STRING_SCHEMA);
+        Schema second = SchemaCache.load(new String(STRING_SCHEMA));
+        assertSame(first, second);
+    }
+
+    @Test
+    void differentSchemasAreCompiledSeparately() {
+        assertNotSame(SchemaCache.load(STRING_SCHEMA), SchemaCache.load(NUMBER_SCHEMA));
+    }
+
+    @Test
+    void invalidSchemaThrowsOriginalException() {
+        assertThrows(JSONException.class, () -> SchemaCache.load("{not json"));
+    }
+}
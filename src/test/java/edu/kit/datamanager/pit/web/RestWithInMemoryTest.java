@@ -19,10 +19,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.context.WebApplicationContext;
 
 import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.domain.SimplePidRecord;
 import edu.kit.datamanager.pit.pidlog.KnownPid;
 import edu.kit.datamanager.pit.pidlog.KnownPidsDao;
 import edu.kit.datamanager.pit.pidsystem.impl.HandleProtocolAdapter;
@@ -43,12 +45,17 @@ import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 // Might be needed for WebApp testing according to https://www.baeldung.com/integration-testing-in-spring
@@ -130,6 +137,176 @@ public class RestWithInMemoryTest {
         assertEquals(0, this.knownPidsDao.count());
     }
 
+    @Test
+    public void testCreateEmptyRecordsInBatch() throws Exception {
+        this.mockMvc
+            .perform(
+                post("/api/v1/pit/pids/")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding("utf-8")
+                    .content("[" + EMPTY_RECORD + ", " + EMPTY_RECORD + "]")
+                    .accept(MediaType.ALL)
+            )
+            .andDo(MockMvcResultHandlers.print())
+            .andExpect(MockMvcResultMatchers.status().is(207))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].index").value(0))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value(409))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].index").value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value(409));
+
+        // we store PIDs only if the PID was created successfully
+        assertEquals(0, this.knownPidsDao.count());
+    }
+
+    @Test
+    public void testCreateEmptyRecordsInNdjsonBatch() throws Exception {
+        this.mockMvc
+            .perform(
+                post("/api/v1/pit/pids/")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .characterEncoding("utf-8")
+                    .content(EMPTY_RECORD + "\n" + EMPTY_RECORD + "\n" + EMPTY_RECORD + "\n")
+                    .accept(MediaType.ALL)
+            )
+            .andDo(MockMvcResultHandlers.print())
+            .andExpect(MockMvcResultMatchers.status().is(207))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3));
+        assertEquals(0, this.knownPidsDao.count());
+    }
+
+    @Test
+    public void testCreateMalformedBatch() throws Exception {
+        this.mockMvc
+            .perform(
+                post("/api/v1/pit/pids/")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding("utf-8")
+                    .content("[" + EMPTY_RECORD + ", {")
+                    .accept(MediaType.ALL)
+            )
+            .andDo(MockMvcResultHandlers.print())
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        assertEquals(0, this.knownPidsDao.count());
+    }
+
+    @Test
+    public void testCreateRecordsInBatch() throws Exception {
+        MvcResult result = this.mockMvc
+            .perform(
+                post("/api/v1/pit/pids/")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding("utf-8")
+                    .content("[" + ApiMockUtils.JSON_RECORD + ", " + ApiMockUtils.JSON_RECORD + "]")
+                    .accept(MediaType.ALL)
+            )
+            .andDo(MockMvcResultHandlers.print())
+            .andExpect(MockMvcResultMatchers.status().isCreated())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].index").value(0))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value(201))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].index").value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value(201))
+            .andReturn();
+
+        JsonNode results = this.mapper.readTree(result.getResponse().getContentAsString());
+        String first = results.get(0).get("pid").asText();
+        String second = results.get(1).get("pid").asText();
+        assertFalse(first.isEmpty());
+        assertNotEquals(first, second);
+        assertEquals(first, results.get(0).get("record").get("pid").asText());
+        assertTrue(isPidRegistered(first));
+        assertTrue(isPidRegistered(second));
+        assertEquals(2, this.knownPidsDao.count());
+        assertTrue(this.knownPidsDao.findByPid(first).isPresent());
+        assertTrue(this.knownPidsDao.findByPid(second).isPresent());
+    }
+
+    @Test
+    public void testCreatePartiallyInvalidBatch() throws Exception {
+        MvcResult result = this.mockMvc
+            .perform(
+                post("/api/v1/pit/pids/")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding("utf-8")
+                    .content("[" + ApiMockUtils.JSON_RECORD + ", " + EMPTY_RECORD + "]")
+                    .accept(MediaType.ALL)
+            )
+            .andDo(MockMvcResultHandlers.print())
+            .andExpect(MockMvcResultMatchers.status().is(207))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value(201))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value(409))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].message").isNotEmpty())
+            .andReturn();
+
+        String created = this.mapper.readTree(result.getResponse().getContentAsString()).get(0).get("pid").asText();
+        // only the successfully created PID is stored
+        assertEquals(1, this.knownPidsDao.count());
+        assertTrue(this.knownPidsDao.findByPid(created).isPresent());
+    }
+
+    @Test
+    public void testCreateTooLargeBatch() throws Exception {
+        // more records than the default maximum batch size (1000)
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i <= 1000; i++) {
+            body.append(EMPTY_RECORD).append('\n');
+        }
+        this.mockMvc
+            .perform(
+                post("/api/v1/pit/pids/")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .characterEncoding("utf-8")
+                    .content(body.toString())
+                    .accept(MediaType.ALL)
+            )
+            .andExpect(MockMvcResultMatchers.status().isPayloadTooLarge());
+        assertEquals(0, this.knownPidsDao.count());
+    }
+
+    @Test
+    public void testResolveUnknownPidsInBulk() throws Exception {
+        MvcResult pending = this.mockMvc
+            .perform(
+                post("/api/v1/pit/pids/resolve")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding("utf-8")
+                    .content("[\"fake/pid1\", \"fake/pid2\", \"fake/pid1\"]")
+                    .accept(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+        this.mockMvc.perform(asyncDispatch(pending))
+            .andDo(MockMvcResultHandlers.print())
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            // duplicates are resolved only once
+            .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].pid").value("fake/pid1"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value(404))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].pid").value("fake/pid2"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value(404));
+        assertEquals(0, this.knownPidsDao.count());
+    }
+
+    @Test
+    public void testResolveTooManyPidsInBulk() throws Exception {
+        // more PIDs than the default maximum batch size (1000)
+        List<String> pids = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            pids.add("fake/pid" + i);
+        }
+        this.mockMvc
+            .perform(
+                post("/api/v1/pit/pids/resolve")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding("utf-8")
+                    .content(this.mapper.writeValueAsString(pids))
+                    .accept(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(MockMvcResultMatchers.status().isPayloadTooLarge());
+    }
+
     @Test
     public void testNontypeRecord() throws Exception {
         PIDRecord r = new PIDRecord();
@@ -198,6 +375,116 @@ public class RestWithInMemoryTest {
         assertEquals(record, updatedRecord);
     }
 
+    @Test
+    void testUpdateUnknownRecordWithInvalidRecord() throws Exception {
+        this.mockMvc
+            .perform(put("/api/v1/pit/pid/sandboxed/unknown")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(EMPTY_RECORD))
+            .andExpect(MockMvcResultMatchers.status().isNotFound());
+        assertEquals(0, this.knownPidsDao.count());
+    }
+
+    @Test
+    void testConditionalGetRecord() throws Exception {
+        PIDRecord record = ApiMockUtils.createSomeRecord(this.mockMvc);
+        String etag = this.mockMvc
+            .perform(get("/api/v1/pit/pid/" + record.getPid()))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc
+            .perform(get("/api/v1/pit/pid/" + record.getPid()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(MockMvcResultMatchers.status().isNotModified())
+            .andExpect(MockMvcResultMatchers.content().string(""));
+
+        this.mockMvc
+            .perform(get("/api/v1/pit/pid/" + record.getPid()).header(HttpHeaders.IF_NONE_MATCH, "\"outdated\""))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void testEtagDependsOnFormat() throws Exception {
+        PIDRecord record = ApiMockUtils.createSomeRecord(this.mockMvc);
+        String etag = this.mockMvc
+            .perform(get("/api/v1/pit/pid/" + record.getPid()).accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String simpleEtag = this.mockMvc
+            .perform(get("/api/v1/pit/pid/" + record.getPid()).accept(SimplePidRecord.CONTENT_TYPE))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(simpleEtag);
+        assertNotEquals(etag, simpleEtag);
+
+        // the ETag of one format does not validate the other one
+        this.mockMvc
+            .perform(get("/api/v1/pit/pid/" + record.getPid())
+                .accept(SimplePidRecord.CONTENT_TYPE)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        this.mockMvc
+            .perform(get("/api/v1/pit/pid/" + record.getPid())
+                .accept(SimplePidRecord.CONTENT_TYPE)
+                .header(HttpHeaders.IF_NONE_MATCH, simpleEtag))
+            .andExpect(MockMvcResultMatchers.status().isNotModified())
+            .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+        // but both identify the current version for updates
+        this.mockMvc
+            .perform(put("/api/v1/pit/pid/" + record.getPid())
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(mapper.writeValueAsString(record))
+                .header(HttpHeaders.IF_MATCH, simpleEtag))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void testUpdateRecordWithIfMatch() throws Exception {
+        PIDRecord record = ApiMockUtils.createSomeRecord(this.mockMvc);
+        String etag = this.mockMvc
+            .perform(get("/api/v1/pit/pid/" + record.getPid()))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        record.getEntries().get("21.T11148/b8457812905b83046284").get(0).setValue("https://example.com/anotherUrlAsBefore");
+
+        // outdated version is rejected
+        this.mockMvc
+            .perform(put("/api/v1/pit/pid/" + record.getPid())
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(mapper.writeValueAsString(record))
+                .header(HttpHeaders.IF_MATCH, "\"outdated\""))
+            .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        assertNotEquals(record, ApiMockUtils.resolveRecord(this.mockMvc, record.getPid()));
+
+        // current version is accepted and a new ETag is returned
+        String newEtag = this.mockMvc
+            .perform(put("/api/v1/pit/pid/" + record.getPid())
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(mapper.writeValueAsString(record))
+                .header(HttpHeaders.IF_MATCH, etag))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+        assertEquals(record, ApiMockUtils.resolveRecord(this.mockMvc, record.getPid()));
+
+        // the old version is now outdated
+        this.mockMvc
+            .perform(put("/api/v1/pit/pid/" + record.getPid())
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(mapper.writeValueAsString(record))
+                .header(HttpHeaders.IF_MATCH, etag))
+            .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
     @Test
     public void testIdPidRegisteredFails() throws Exception {
         // Nothing is registered, our local storags contains no PIDs
@@ -377,6 +664,76 @@ public class RestWithInMemoryTest {
         assertEquals(r2.getPid(), pidinfos.get(0).getPid());
     }
 
+    @Test
+    void testKnownPidsCursorPagination() throws Exception {
+        PIDRecord r = ApiMockUtils.createSomeRecord(this.mockMvc);
+        PIDRecord r2 = ApiMockUtils.createSomeRecord(this.mockMvc);
+        PIDRecord r3 = ApiMockUtils.createSomeRecord(this.mockMvc);
+        assertEquals(3, this.knownPidsDao.count());
+
+        MvcResult first = this.mockMvc.perform(get("/api/v1/pit/known-pid")
+                .param("cursor", "")
+                .param("size", "2")
+                .param("created_after", YESTERDAY.toString()))
+            .andDo(MockMvcResultHandlers.print())
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+            .andReturn();
+        Set<String> found = new HashSet<>();
+        for (KnownPid known : ApiMockUtils.getJsonMapper().readValue(first.getResponse().getContentAsString(), KnownPid[].class)) {
+            found.add(known.getPid());
+        }
+        String link = first.getResponse().getHeader("Link");
+        assertNotNull(link);
+        assertTrue(link.endsWith(">; rel=\"next\""));
+        assertTrue(link.contains("created_after="));
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        MvcResult second = this.mockMvc.perform(get(java.net.URI.create(next)))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+            .andReturn();
+        assertEquals(null, second.getResponse().getHeader("Link"));
+        for (KnownPid known : ApiMockUtils.getJsonMapper().readValue(second.getResponse().getContentAsString(), KnownPid[].class)) {
+            found.add(known.getPid());
+        }
+        assertEquals(Set.of(r.getPid(), r2.getPid(), r3.getPid()), found);
+
+        this.mockMvc.perform(get("/api/v1/pit/known-pid").param("cursor", "not a cursor"))
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void testKnownPidsExport() throws Exception {
+        PIDRecord r = ApiMockUtils.createSomeRecord(this.mockMvc);
+        PIDRecord r2 = ApiMockUtils.createSomeRecord(this.mockMvc);
+
+        MvcResult pending = this.mockMvc.perform(get("/api/v1/pit/known-pid")
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+        String ndjson = this.mockMvc.perform(asyncDispatch(pending))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String[] lines = ndjson.trim().split("\n");
+        assertEquals(2, lines.length);
+        Set<String> exported = new HashSet<>();
+        for (String line : lines) {
+            exported.add(ApiMockUtils.getJsonMapper().readValue(line, KnownPid.class).getPid());
+        }
+        assertEquals(Set.of(r.getPid(), r2.getPid()), exported);
+
+        pending = this.mockMvc.perform(get("/api/v1/pit/known-pid")
+                .param("created_after", TOMORROW.toString())
+                .accept("text/csv"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+        String csv = this.mockMvc.perform(asyncDispatch(pending))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertEquals("pid,created,modified\r\n", csv);
+    }
+
     @Test
     void testTabulatorFormat() throws Exception {
         PIDRecord r = ApiMockUtils.createSomeRecord(this.mockMvc);
@@ -3,6 +3,7 @@ package edu.kit.datamanager.pit.web;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -56,6 +58,34 @@ class SimpleJSONFormatTest {
         assertEquals(complexPairs, simpleFormat.getPairs().size());
     }
 
+    /**
+     * Test: Create PID
+     * 
+     * Input: simple json with a pair without key
+     * Expect: HTTP 400
+     */
+    @Test
+    void testCreatePidFromSimpleWithoutKey() throws Exception {
+        this.mockMvc
+            .perform(
+                post("/api/v1/pit/pid/")
+                    .contentType(SimplePidRecord.CONTENT_TYPE)
+                    .characterEncoding("utf-8")
+                    .content("{\"record\": [\"x\", {\"value\": \"v\"}]}")
+                    .accept(MediaType.ALL)
+            )
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        this.mockMvc
+            .perform(
+                post("/api/v1/pit/pid/")
+                    .contentType(SimplePidRecord.CONTENT_TYPE)
+                    .characterEncoding("utf-8")
+                    .content("{\"record\": [{\"value\": \"v\"}]}")
+                    .accept(MediaType.ALL)
+            )
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     /**
      * Test: Create PID
      * 
@@ -0,0 +1,105 @@
+package edu.kit.datamanager.pit.web.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.kit.datamanager.pit.Application;
+import edu.kit.datamanager.pit.domain.PIDRecord;
+import edu.kit.datamanager.pit.domain.SimplePidRecord;
+import edu.kit.datamanager.pit.web.ApiMockUtils;
+
+class SimplePidRecordConverterTest {
+
+    private static final MediaType SIMPLE = MediaType.valueOf(SimplePidRecord.CONTENT_TYPE);
+    private static final ObjectMapper MAPPER = Application.jsonObjectMapper();
+
+    private final SimplePidRecordConverter converter = new SimplePidRecordConverter();
+
+    @Test
+    void testWriteEqualsSimplePidRecordSerialization() throws IOException {
+        PIDRecord record = ApiMockUtils.getSomePidRecordInstance();
+        record.setPid("sandboxed/1234");
+        record.addEntry("emptyValue", "", "");
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(record, SIMPLE, output);
+        assertEquals(
+            MAPPER.readTree(MAPPER.writeValueAsString(new SimplePidRecord(record))),
+            MAPPER.readTree(output.getBodyAsString(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        PIDRecord record = ApiMockUtils.getSomePidRecordInstance();
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(record, SIMPLE, output);
+        PIDRecord read = converter.read(PIDRecord.class, new MockHttpInputMessage(output.getBodyAsBytes()));
+        // the PID is not taken from the body, the handlers get it from the path
+        assertEquals(record.withPID(null), read);
+    }
+
+    @Test
+    void testReadIgnoresUnknownFields() throws IOException {
+        String json = "{\"pid\": \"ignored\", \"unknown\": {\"nested\": [1, 2]}, "
+            + "\"record\": [{\"key\": \"k\", \"value\": \"v1\"}, {\"value\": \"v2\", \"key\": \"k\"}]}";
+        PIDRecord read = converter.read(PIDRecord.class, new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8)));
+        PIDRecord expected = new PIDRecord();
+        expected.addEntry("k", "", "v1");
+        expected.addEntry("k", "", "v2");
+        assertEquals(expected, read);
+    }
+
+    @Test
+    void testReadMalformed() {
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(
+            PIDRecord.class,
+            new MockHttpInputMessage("[]".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(
+            PIDRecord.class,
+            new MockHttpInputMessage("{\"record\": [".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testReadRejectsNonObjectPairs() {
+        for (String json : new String[] {
+            "{\"record\": [\"x\", {\"key\": \"k\", \"value\": \"v\"}]}",
+            "{\"record\": [{\"key\": \"k\", \"value\": \"v\"}, \"x\"]}",
+            "{\"record\": [{\"key\": \"k\", \"value\": \"v\"}, [1]]}",
+            "{\"record\": [{\"key\": \"k\", \"value\": \"v\"}, null]}"
+        }) {
+            assertThrows(HttpMessageNotReadableException.class, () -> converter.read(
+                PIDRecord.class,
+                new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8))), json);
+        }
+    }
+
+    @Test
+    void testReadRejectsPairsWithoutKey() {
+        for (String json : new String[] {
+            "{\"record\": [{\"value\": \"v\"}]}",
+            "{\"record\": [{\"key\": null, \"value\": \"v\"}]}",
+            "{\"record\": [{\"key\": \"\", \"value\": \"v\"}]}"
+        }) {
+            assertThrows(HttpMessageNotReadableException.class, () -> converter.read(
+                PIDRecord.class,
+                new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8))), json);
+        }
+    }
+
+    @Test
+    void testReadRejectsTrailingContent() {
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(
+            PIDRecord.class,
+            new MockHttpInputMessage("{\"record\": []} {}".getBytes(StandardCharsets.UTF_8))));
+    }
+}